@@ -0,0 +1,35 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.AsciiHangman;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for drawing the hangman picture, which happens on every turn
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AsciiHangmanBenchmark {
+
+    @Param({"0", "3", "6"})
+    public int numWrongGuesses;
+
+    @Benchmark
+    public String getAsciiHangman() {
+        return AsciiHangman.getAsciiHangman(numWrongGuesses);
+    }
+}
@@ -0,0 +1,93 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Dictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for loading the Dictionary, and for looking up words that are and aren't in it, for each kind of storage
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DictionaryBenchmark {
+
+    // the words are looked up in a shuffled order, so lookups don't just walk the same path through memory each time
+    private static final int NUM_LOOKUPS = 4096;
+
+    @Param({"HASH_SET", "DAWG", "MAPPED"})
+    public Dictionary.Storage storage;
+
+    private Dictionary dictionary;
+    private String[] validWords;
+    private String[] invalidWords;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dictionary = load(storage);
+
+        List<String> words = Files.readAllLines(Paths.get("words_en.txt"));
+        Collections.shuffle(words, new Random(1));
+        validWords = new String[NUM_LOOKUPS];
+        invalidWords = new String[NUM_LOOKUPS];
+        for (int i = 0; i < NUM_LOOKUPS; i++) {
+            validWords[i] = words.get(i);
+            invalidWords[i] = words.get(i) + "zq";
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public Dictionary construct() {
+        return load(storage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isValidWordHit() {
+        return dictionary.isValidWord(typed(validWords[next++ & (NUM_LOOKUPS - 1)]));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isValidWordMiss() {
+        return dictionary.isValidWord(typed(invalidWords[next++ & (NUM_LOOKUPS - 1)]));
+    }
+
+    // a fresh copy of the word for every lookup, like a word the user just typed. A String caches its hash code the
+    // first time it's asked for one, so looking up the same copies over and over would only hash each one once. The
+    // copy shares the original's bytes, so it's just a small allocation on top of the lookup
+    private static String typed(String word) {
+        return new String(word);
+    }
+
+    // create the dictionary and wait for it to finish loading in the background
+    private static Dictionary load(Dictionary.Storage storage) {
+        return new Dictionary(new FailOnLoadError(), storage).whenLoaded().join();
+    }
+}
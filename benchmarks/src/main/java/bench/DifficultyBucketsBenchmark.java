@@ -0,0 +1,60 @@
+package bench;
+
+import bot.Difficulty;
+import bot.DifficultyBuckets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Dictionary;
+import words.Phrase;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the computer picking a phrase: scoring the whole dictionary once, and then each pick after that
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DifficultyBucketsBenchmark {
+
+    @Param({"EASY", "HARD"})
+    public Difficulty difficulty;
+
+    private Dictionary dictionary;
+    private DifficultyBuckets buckets;
+    private final Random random = new Random(1);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dictionary = new Dictionary(new FailOnLoadError(), Dictionary.Storage.DAWG).whenLoaded().join();
+        buckets = DifficultyBuckets.build(dictionary);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public DifficultyBuckets build() {
+        return DifficultyBuckets.build(dictionary);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Phrase pick() {
+        return buckets.pick(difficulty, random);
+    }
+}
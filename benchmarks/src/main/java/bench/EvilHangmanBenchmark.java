@@ -0,0 +1,69 @@
+package bench;
+
+import bot.EvilHangman;
+import game.Game;
+import game.GameStatus;
+import game.PhraseAdversary;
+import game.TurnResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.AsciiHangman;
+import words.Dictionary;
+import words.Letter;
+import words.Phrase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for evil hangman splitting the remaining words into families: the first guess, which has to split every
+ * word of the length, and a whole game of guesses
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EvilHangmanBenchmark {
+
+    // guesses in order of how common the letters are in English
+    private static final TurnResult[] GUESSES = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                        .mapToObj(c -> Letter.fromChar((char) c))
+                                                                        .map(TurnResult::guessedLetter)
+                                                                        .toArray(TurnResult[]::new);
+
+    @Param({"4", "8"})
+    public int length;
+
+    private EvilHangman evilHangman;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        evilHangman = EvilHangman.build(new Dictionary(new FailOnLoadError(), Dictionary.Storage.DAWG));
+    }
+
+    @Benchmark
+    public Phrase firstGuess() {
+        PhraseAdversary adversary = evilHangman.newGame(length);
+        return adversary.afterLetterGuessed(Letter.E);
+    }
+
+    @Benchmark
+    public GameStatus wholeGame() {
+        Game game = new Game(evilHangman.newGame(length), AsciiHangman.MAX_WRONG);
+        for (int i = 0; !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(GUESSES[i]);
+        }
+        return game.getGameStatus();
+    }
+}
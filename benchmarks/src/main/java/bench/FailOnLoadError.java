@@ -0,0 +1,23 @@
+package bench;
+
+import ui.DictionaryMessages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * DictionaryMessages for the benchmarks. A benchmark on a dictionary that didn't load would be meaningless, so this
+ * stops the benchmark instead of carrying on with every word treated as valid
+ */
+class FailOnLoadError implements DictionaryMessages {
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+    }
+
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        throw new UncheckedIOException(e);
+    }
+}
@@ -0,0 +1,74 @@
+package bench;
+
+import analytics.GameAnalytics;
+import game.Game;
+import game.GameStatus;
+import game.TurnResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.AsciiHangman;
+import words.Letter;
+import words.Phrase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for counting games in GameAnalytics: the same scripted game as GameBenchmark, played with and without
+ * the analytics listening to every turn, and the finished game handed over all at once to gameCompleted()
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameAnalyticsBenchmark {
+
+    // guesses in order of how common the letters are in English
+    private static final TurnResult[] GUESSES = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                        .mapToObj(c -> Letter.fromChar((char) c))
+                                                                        .map(TurnResult::guessedLetter)
+                                                                        .toArray(TurnResult[]::new);
+
+    private final Phrase phrase = Phrase.fromString("the quick brown fox");
+    private final GameAnalytics analytics = new GameAnalytics();
+    private final List<TurnResult> turns = new ArrayList<>(); // the turns of the scripted game, for gameCompleted()
+    private final GameStatus finalStatus;
+
+    public GameAnalyticsBenchmark() {
+        Game game = new Game(phrase, AsciiHangman.MAX_WRONG, (turnResult, gameStatus) -> turns.add(turnResult));
+        finalStatus = play(game);
+    }
+
+    @Benchmark
+    public GameStatus scriptedGame() {
+        return play(new Game(phrase, AsciiHangman.MAX_WRONG));
+    }
+
+    @Benchmark
+    public GameStatus analysedScriptedGame() {
+        return play(new Game(phrase, AsciiHangman.MAX_WRONG, analytics.gameStarted(phrase, AsciiHangman.MAX_WRONG)));
+    }
+
+    @Benchmark
+    public long completedGame() {
+        analytics.gameCompleted(phrase, turns, finalStatus);
+        return analytics.getGames();
+    }
+
+    private static GameStatus play(Game game) {
+        for (int i = 0; !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(GUESSES[i]);
+        }
+        return game.getGameStatus();
+    }
+}
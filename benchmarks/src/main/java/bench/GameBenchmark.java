@@ -0,0 +1,79 @@
+package bench;
+
+import bot.FrequencyGuesser;
+import game.Game;
+import game.GameStatus;
+import game.TurnResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sim.Simulation;
+import ui.AsciiHangman;
+import words.Dictionary;
+import words.Letter;
+import words.Phrase;
+import words.WordIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing whole games through the Game engine: once with a fixed list of guesses so it's just the
+ * engine being measured, and once with the computer guesser choosing each letter
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameBenchmark {
+
+    // guesses in order of how common the letters are in English, so games end with a mix of wins and losses
+    private static final TurnResult[] GUESSES = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                        .mapToObj(c -> Letter.fromChar((char) c))
+                                                                        .map(TurnResult::guessedLetter)
+                                                                        .toArray(TurnResult[]::new);
+
+    @Param({"hangman", "the quick brown fox"})
+    public String phraseText;
+
+    private Phrase phrase;
+    private FrequencyGuesser guesser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Letter> letters = new ArrayList<>();
+        for (char c : phraseText.toCharArray()) {
+            letters.add(Letter.fromChar(c));
+        }
+        phrase = new Phrase(letters);
+
+        Dictionary dictionary = new Dictionary(new FailOnLoadError());
+        guesser = new FrequencyGuesser(WordIndex.build(dictionary));
+    }
+
+    @Benchmark
+    public GameStatus scriptedGame() {
+        Game game = new Game(phrase, AsciiHangman.MAX_WRONG);
+        for (int i = 0; !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(GUESSES[i]);
+        }
+        return game.getGameStatus();
+    }
+
+    @Benchmark
+    public GameStatus guessedGame() {
+        return Simulation.playGame(phrase, guesser).getGameStatus();
+    }
+}
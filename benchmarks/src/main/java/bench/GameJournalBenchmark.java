@@ -0,0 +1,81 @@
+package bench;
+
+import game.Game;
+import game.GameStatus;
+import game.TurnResult;
+import journal.GameJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.AsciiHangman;
+import words.Letter;
+import words.Phrase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for recording games in a GameJournal: the same scripted game as GameBenchmark, played with and without
+ * every event being written to the journal
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameJournalBenchmark {
+
+    // guesses in order of how common the letters are in English
+    private static final TurnResult[] GUESSES = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                        .mapToObj(c -> Letter.fromChar((char) c))
+                                                                        .map(TurnResult::guessedLetter)
+                                                                        .toArray(TurnResult[]::new);
+
+    private final Phrase phrase = Phrase.fromString("the quick brown fox");
+    private Path directory;
+    private GameJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hangman-journal");
+        journal = new GameJournal(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        for (Path segment : GameJournal.segments(directory)) {
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public GameStatus scriptedGame() {
+        return play(new Game(phrase, AsciiHangman.MAX_WRONG));
+    }
+
+    @Benchmark
+    public GameStatus journaledScriptedGame() {
+        return play(new Game(phrase, AsciiHangman.MAX_WRONG, journal.gameStarted(phrase, AsciiHangman.MAX_WRONG)));
+    }
+
+    private static GameStatus play(Game game) {
+        for (int i = 0; !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(GUESSES[i]);
+        }
+        return game.getGameStatus();
+    }
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import game.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.GameScreen;
+import words.Letter;
+import words.Phrase;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building the whole screen the command line shows after every turn
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameScreenBenchmark {
+
+    private final GameScreen screen = new GameScreen(true, '-');
+    private Phrase phrase;
+    private Set<Letter> correctlyGuessedLetters;
+    private Set<Letter> incorrectlyGuessedLetters;
+    private Set<Phrase> incorrectlyGuessedPhrases;
+
+    @Setup
+    public void setUp() {
+        phrase = phrase("the quick brown fox jumps over the lazy dog");
+        correctlyGuessedLetters = EnumSet.of(Letter.E, Letter.T, Letter.O, Letter.H);
+        incorrectlyGuessedLetters = EnumSet.of(Letter.X, Letter.Q);
+        incorrectlyGuessedPhrases = Set.of(phrase("the quick brown cat"));
+    }
+
+    @Benchmark
+    public int render() {
+        return screen.render(phrase, correctlyGuessedLetters, incorrectlyGuessedLetters, incorrectlyGuessedPhrases,
+                             GameStatus.GUESSING).length();
+    }
+
+    private static Phrase phrase(String text) {
+        List<Letter> letters = new ArrayList<>();
+        for (char c : text.toCharArray()) {
+            letters.add(Letter.fromChar(c));
+        }
+        return new Phrase(letters);
+    }
+}
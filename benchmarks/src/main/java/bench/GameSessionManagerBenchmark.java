@@ -0,0 +1,88 @@
+package bench;
+
+import game.GameSessionManager;
+import game.GameState;
+import game.TurnResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ui.AsciiHangman;
+import words.Letter;
+import words.Phrase;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for lots of threads sharing one GameSessionManager: whole games from create to end, and reading the
+ * state of random games out of a big set of live ones
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameSessionManagerBenchmark {
+    private static final int LIVE_GAMES = 10_000;
+
+    // guesses in order of how common the letters are in English, so games end with a mix of wins and losses
+    private static final TurnResult[] GUESSES = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                        .mapToObj(c -> Letter.fromChar((char) c))
+                                                                        .map(TurnResult::guessedLetter)
+                                                                        .toArray(TurnResult[]::new);
+
+    private GameSessionManager manager;
+    private Phrase phrase;
+    private String[] liveSessionIds;
+
+    @Setup
+    public void setUp() {
+        List<Letter> letters = new ArrayList<>();
+        for (char c : "hangman".toCharArray()) {
+            letters.add(Letter.fromChar(c));
+        }
+        phrase = new Phrase(letters);
+
+        manager = new GameSessionManager(Duration.ofHours(1), LIVE_GAMES * 2);
+        liveSessionIds = new String[LIVE_GAMES];
+        for (int i = 0; i < LIVE_GAMES; i++) {
+            liveSessionIds[i] = manager.createGame(phrase, AsciiHangman.MAX_WRONG);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Benchmark
+    public GameState wholeGame() {
+        String sessionId = manager.createGame(phrase, AsciiHangman.MAX_WRONG);
+        GameState state = null;
+        for (int i = 0; state == null || !state.getGameStatus().isGameOver(); i++) {
+            state = manager.applyTurn(sessionId, GUESSES[i]).orElseThrow();
+        }
+        manager.endGame(sessionId);
+        return state;
+    }
+
+    @Benchmark
+    public GameState getState() {
+        String sessionId = liveSessionIds[ThreadLocalRandom.current().nextInt(LIVE_GAMES)];
+        return manager.getState(sessionId).orElseThrow();
+    }
+}
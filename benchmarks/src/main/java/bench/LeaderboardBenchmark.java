@@ -0,0 +1,105 @@
+package bench;
+
+import leaderboard.Leaderboard;
+import leaderboard.PlayerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the leaderboard with lots of players who've each played a few games: recording a game, the top 10,
+ * one player's rank, and loading the whole thing back from its snapshot, which is what a server restart waits for.
+ * Recording a game here includes appending it to the update file
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LeaderboardBenchmark {
+    private static final int GAMES_PER_PLAYER = 5;
+
+    @Param({"100000", "1000000"})
+    public int players;
+
+    private Path directory;
+    private Path loadDirectory; // a copy of the snapshot for load(), which the games from record() don't go into
+    private Leaderboard leaderboard;
+    private String[] names;
+    private final Random random = new Random(1);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("leaderboard-benchmark");
+        names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "player" + i;
+        }
+        try (Leaderboard filling = Leaderboard.open(directory, Duration.ZERO)) { // snapshots everything on close
+            for (int game = 0; game < GAMES_PER_PLAYER; game++) {
+                for (String name : names) {
+                    filling.record(name, random.nextInt(3) > 0, random.nextInt(7));
+                }
+            }
+        }
+        loadDirectory = Files.createDirectories(directory.resolve("load"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                Files.copy(file, loadDirectory.resolve(file.getFileName()));
+            }
+        }
+        leaderboard = Leaderboard.open(directory, Duration.ZERO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        leaderboard.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public PlayerRecord record() {
+        return leaderboard.record(names[random.nextInt(players)], random.nextBoolean(), random.nextInt(7));
+    }
+
+    @Benchmark
+    public List<PlayerRecord> top10() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    public OptionalInt rank() {
+        return leaderboard.rank(names[random.nextInt(players)]);
+    }
+
+    // not closed, since that would write out a whole new snapshot. Nothing's recorded, so it's got nothing open
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int load() throws IOException {
+        return Leaderboard.open(loadDirectory, Duration.ZERO).size();
+    }
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Letter;
+import words.Phrase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing user input into Letters and Phrases
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LetterBenchmark {
+
+    // a mix of upper and lower case letters, like a player would type
+    private final char[] chars = "hAnGmAnIsFuN".toCharArray();
+    private final String[] strings = {"h", "A", "n", "G", "m", "A", "n", "I", "s", "F", "u", "N"};
+    private final String phraseText = "The quick brown fox jumps over the lazy dog";
+    private final String badPhraseText = "The quick brown fox can't jump";
+    private char invalid = ':';
+    private int next = 0;
+
+    @Benchmark
+    public Letter fromChar() {
+        next = (next + 1) % chars.length;
+        return Letter.fromChar(chars[next]);
+    }
+
+    @Benchmark
+    public Letter fromString() {
+        next = (next + 1) % strings.length;
+        return Letter.fromString(strings[next]);
+    }
+
+    @Benchmark
+    public Letter lookup() {
+        next = (next + 1) % chars.length;
+        return Letter.lookup(chars[next]);
+    }
+
+    // a char that isn't a letter, which used to mean throwing and catching an exception
+    @Benchmark
+    public Letter lookupInvalid() {
+        return Letter.lookup(invalid);
+    }
+
+    // parsing a phrase a player typed in, the same way the user interface does
+    @Benchmark
+    public Phrase phraseFromString() {
+        return Phrase.fromString(phraseText);
+    }
+
+    @Benchmark
+    public int indexOfInvalidChar() {
+        return Phrase.indexOfInvalidChar(badPhraseText);
+    }
+}
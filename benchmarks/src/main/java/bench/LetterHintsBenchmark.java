@@ -0,0 +1,87 @@
+package bench;
+
+import bot.FrequencyGuesser;
+import bot.LetterHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.WordIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for hints, on the states of real games: a computer player's first few guesses at random words, where
+ * the same early states come up again and again. A cache size of 0 works every hint out from scratch
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LetterHintsBenchmark {
+    private static final int GAMES = 2000;
+    private static final int TURNS = 4; // hints are mostly asked for early on, before there's much to go on
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private LetterHints hints;
+    private final List<Phrase> phrases = new ArrayList<>();
+    private final List<int[]> letters = new ArrayList<>(); // the correct and incorrect LetterMasks for each state
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Dictionary dictionary = new Dictionary(new FailOnLoadError(), Dictionary.Storage.DAWG).whenLoaded().join();
+        List<String> words = new ArrayList<>();
+        dictionary.forEachWord(word -> {
+            if (word.length() >= 4 && word.chars().allMatch(Character::isLetter)) {
+                words.add(word);
+            }
+        });
+
+        Random random = new Random(1);
+        FrequencyGuesser guesser = new FrequencyGuesser(WordIndex.build(dictionary));
+        for (int game = 0; game < GAMES; game++) {
+            Phrase phrase = Phrase.fromString(words.get(random.nextInt(words.size())));
+            int correct = LetterMask.NONE;
+            int incorrect = LetterMask.NONE;
+            for (int turn = 0; turn < TURNS; turn++) {
+                phrases.add(phrase);
+                letters.add(new int[] {correct, incorrect});
+                Letter guess = guesser.nextGuess(phrase, correct, incorrect);
+                if (phrase.contains(guess)) {
+                    correct |= LetterMask.of(guess);
+                }
+                else {
+                    incorrect |= LetterMask.of(guess);
+                }
+            }
+        }
+        hints = new LetterHints(dictionary, cacheSize);
+    }
+
+    @Benchmark
+    public Letter hint() {
+        next = (next + 1) % phrases.size();
+        int[] state = letters.get(next);
+        return hints.hintFor(phrases.get(next), state[0], state[1]);
+    }
+}
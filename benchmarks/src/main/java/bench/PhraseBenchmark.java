@@ -0,0 +1,72 @@
+package bench;
+
+import game.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.RevealedPhrase;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for turning a Phrase into text, which happens on every turn
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PhraseBenchmark {
+
+    @Param({"the quick brown fox jumps over the lazy dog"})
+    public String phraseText;
+
+    private Phrase phrase;
+    private Set<Letter> correctlyGuessedLetters;
+    private RevealedPhrase revealedPhrase;
+
+    @Setup
+    public void setUp() {
+        List<Letter> letters = new ArrayList<>();
+        for (char c : phraseText.toCharArray()) {
+            letters.add(Letter.fromChar(c));
+        }
+        phrase = new Phrase(letters);
+        correctlyGuessedLetters = EnumSet.of(Letter.E, Letter.T, Letter.O, Letter.H);
+        revealedPhrase = new RevealedPhrase(phrase, '-');
+        revealedPhrase.reveal(LetterMask.of(correctlyGuessedLetters));
+    }
+
+    @Benchmark
+    public String asRawString() {
+        return phrase.asRawString();
+    }
+
+    @Benchmark
+    public String asStringWithHiding() {
+        return phrase.asStringWithHiding(correctlyGuessedLetters, GameStatus.GUESSING, "-");
+    }
+
+    // showing the phrase again on a turn where no new letters were guessed
+    @Benchmark
+    public String revealedPhrase() {
+        revealedPhrase.reveal(LetterMask.of(correctlyGuessedLetters));
+        return revealedPhrase.toString();
+    }
+}
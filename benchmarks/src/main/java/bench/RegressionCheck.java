@@ -0,0 +1,148 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a set of JMH results against a saved baseline, and fails if anything got worse by more than the tolerance.
+ * Both files are JMH's CSV output. Each primary result is compared by its score (throughput should be higher,
+ * everything else is a time and should be lower), and allocations are compared by the GC profiler's bytes per
+ * operation, since that's the number that doesn't depend on how busy the machine was.
+ *
+ * Run by the jmhCheck task: java bench.RegressionCheck baseline.csv results.csv [tolerance, e.g. 0.10 for 10%]
+ */
+public class RegressionCheck {
+
+    // the GC profiler's secondary result for bytes allocated per operation
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    // allocations under this many bytes per operation are just noise, e.g. 0.001 bytes vs 0.002 bytes
+    private static final double MIN_ALLOCATION_BYTES = 1.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionCheck <baseline.csv> <results.csv> [tolerance]");
+            System.exit(2);
+        }
+        Path baselineFile = Paths.get(args[0]);
+        if (!Files.exists(baselineFile)) {
+            System.err.println("no baseline at " + baselineFile + ", save one first with the jmhSaveBaseline task");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        Map<String, Result> baseline = readResults(baselineFile);
+        Map<String, Result> results = readResults(Paths.get(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.println("new:       " + entry.getKey());
+                continue;
+            }
+
+            double change = after.higherIsBetter() ? (before.score - after.score) / before.score
+                                                   : (after.score - before.score) / before.score;
+            boolean isAllocation = entry.getKey().endsWith(ALLOCATION_METRIC);
+            boolean regressed = change > tolerance &&
+                                !(isAllocation && after.score < MIN_ALLOCATION_BYTES);
+            String line = String.format("%-10s %s: %.3f -> %.3f %s (%+.1f%% worse)", regressed ? "REGRESSED:" : "ok:",
+                                        entry.getKey(), before.score, after.score, after.unit, change * 100);
+            System.out.println(line);
+            if (regressed) {
+                regressions.add(line);
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.println(String.format("%d benchmark(s) regressed by more than %.0f%%:", regressions.size(),
+                                             tolerance * 100));
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    // one row from the results file
+    private static class Result {
+        private final String mode;
+        private final double score;
+        private final String unit;
+
+        private Result(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        // throughput is operations per time, every other mode is time per operation
+        private boolean higherIsBetter() {
+            return mode.equals("thrpt") && !unit.startsWith("B/");
+        }
+    }
+
+    // read the results we care about, keyed by benchmark name and parameters
+    private static Map<String, Result> readResults(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        List<String> header = parseCsvLine(lines.get(0));
+        int benchmarkColumn = header.indexOf("Benchmark");
+        int modeColumn = header.indexOf("Mode");
+        int scoreColumn = header.indexOf("Score");
+        int unitColumn = header.indexOf("Unit");
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            String benchmark = fields.get(benchmarkColumn);
+
+            // secondary results are named like "bench.Foo.bar:gc.alloc.rate", only keep the allocations per op
+            int metricStart = benchmark.indexOf(':');
+            if (metricStart >= 0 && !benchmark.endsWith(ALLOCATION_METRIC)) {
+                continue;
+            }
+
+            // parameters come after the unit column, e.g. "Param: storage"
+            StringBuilder key = new StringBuilder(benchmark);
+            for (int i = unitColumn + 1; i < fields.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+                }
+            }
+            results.put(key.toString(), new Result(fields.get(modeColumn),
+                                                   Double.parseDouble(fields.get(scoreColumn)),
+                                                   fields.get(unitColumn)));
+        }
+        return results;
+    }
+
+    // split one line of CSV into its fields, JMH quotes every text field and never puts quotes inside them
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (char c : line.toCharArray()) {
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            }
+            else if (c == ',' && !inQuotes) {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,57 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Dictionary;
+import words.SpellingSuggester;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for "did you mean" suggestions: building the index the first time they're needed, and each lookup after
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SpellingSuggesterBenchmark {
+    // typos of short and long words, and one nothing is close to
+    private static final String[] TYPOS = {"teh", "helo", "recieve", "spelng", "definately", "acommodate", "zxqv"};
+
+    private Dictionary dictionary;
+    private SpellingSuggester suggester;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dictionary = new Dictionary(new FailOnLoadError(), Dictionary.Storage.DAWG).whenLoaded().join();
+        suggester = SpellingSuggester.build(dictionary);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public SpellingSuggester build() {
+        return SpellingSuggester.build(dictionary);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> suggestionsFor() {
+        next = (next + 1) % TYPOS.length;
+        return suggester.suggestionsFor(TYPOS[next], 5);
+    }
+}
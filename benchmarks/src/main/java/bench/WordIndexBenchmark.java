@@ -0,0 +1,83 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.WordIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks for pattern queries, against checking the pattern against every word in the dictionary
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WordIndexBenchmark {
+    private static final int EXCLUDED = LetterMask.of(Letter.E) | LetterMask.of(Letter.S);
+
+    @Param({"c-t", "--ang--", "--------"}) // a few words, a few more, and thousands
+    public String pattern;
+
+    private WordIndex wordIndex;
+    private final List<String> words = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Dictionary dictionary = new Dictionary(new FailOnLoadError(), Dictionary.Storage.DAWG);
+        wordIndex = dictionary.getWordIndex();
+        dictionary.forEachWord(words::add);
+    }
+
+    @Benchmark
+    public int count() {
+        return wordIndex.count(pattern, EXCLUDED);
+    }
+
+    @Benchmark
+    public List<String> firstTen() {
+        return wordIndex.matching(pattern, EXCLUDED).limit(10).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int scanEveryWord() {
+        int count = 0;
+        for (String word : words) {
+            count += matches(word) ? 1 : 0;
+        }
+        return count;
+    }
+
+    private boolean matches(String word) {
+        if (word.length() != pattern.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            Letter letter = Letter.lookup(word.charAt(i));
+            char wanted = pattern.charAt(i);
+            if (letter == null || (wanted == WordIndex.WILDCARD ? LetterMask.contains(EXCLUDED, letter)
+                                                                 : Character.toLowerCase(wanted) != word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,30 +1,186 @@
+import analytics.GameAnalytics;
+import bot.Difficulty;
+import bot.EvilHangman;
+import bot.LetterHints;
 import game.Game;
+import game.GameRunner;
+import game.PhraseAdversary;
+import journal.GameJournal;
+import leaderboard.Leaderboard;
+import metrics.HangmanMetrics;
+import ui.BatchUserInteractions;
 import ui.CommandLineUserInteractions;
+import ui.ComputerGuesserUserInteractions;
+import ui.ComputerPhraseSetterUserInteractions;
+import ui.GameAbandonedException;
+import ui.TextUserInteractions;
 import ui.UserInteractions;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * The main class to run the Hangman game. This class defines the type of UI we're going to use, and then just plays
  * games repeatedly until the user says they don't want a new game.
  */
 public class Hangman {
+    private static final String COMPUTER_PLAYER = "computer"; // who's on the leaderboard when the computer guesses
+    private static final String USER_NAME = System.getProperty("user.name"); // the default --player
+    private static final Duration LEADERBOARD_SNAPSHOT_PERIOD = Duration.ofMinutes(5);
 
     private final UserInteractions userInteractions;
+    private final GameJournal journal; // records every game, or null if they aren't being recorded
+    private final Supplier<PhraseAdversary> adversaries; // if not null, these pick the phrases instead of a person
+    private final Leaderboard leaderboard; // where the guesser's results go, or null if they aren't kept
+    private final String player; // the guesser's name on the leaderboard
+    private final GameAnalytics analytics; // counts every finished game, or null if they aren't counted
 
     public Hangman(UserInteractions userInteractions) {
+        this(userInteractions, null, null);
+    }
+
+    public Hangman(UserInteractions userInteractions, GameJournal journal, Supplier<PhraseAdversary> adversaries) {
+        this(userInteractions, journal, adversaries, null, null);
+    }
+
+    public Hangman(UserInteractions userInteractions, GameJournal journal, Supplier<PhraseAdversary> adversaries,
+                   Leaderboard leaderboard, String player) {
+        this(userInteractions, journal, adversaries, leaderboard, player, null);
+    }
+
+    public Hangman(UserInteractions userInteractions, GameJournal journal, Supplier<PhraseAdversary> adversaries,
+                   Leaderboard leaderboard, String player, GameAnalytics analytics) {
         this.userInteractions = userInteractions;
+        this.journal = journal;
+        this.adversaries = adversaries;
+        this.leaderboard = leaderboard;
+        this.player = player;
+        this.analytics = analytics;
     }
 
     private void playUntilQuit() {
         boolean keepPlaying = true;
         while (keepPlaying) {
-            new Game(userInteractions);
+            Game game;
+            try {
+                if (adversaries != null) {
+                    game = GameRunner.playAgainst(userInteractions, adversaries.get());
+                }
+                else {
+                    game = GameRunner.play(userInteractions, journal, analytics);
+                }
+            }
+            catch (GameAbandonedException e) {
+                game = null; // it never finished, so there's nothing to record, but there might be more games
+            }
+            if (leaderboard != null && game != null) {
+                leaderboard.record(player, game);
+            }
             keepPlaying = userInteractions.wantToPlayAgain();
         }
     }
 
     // creates a new Hangman game with the command line UI module, and plays repeatedly until the user quits
     // we could run the game with different UI by writing a new implementation of UserInteraction and creating it here
-    public static void main(String[] args) {
-        new Hangman(new CommandLineUserInteractions()).playUntilQuit();
+    // pass --computer-guesser to have the computer guess the phrase instead of a second person
+    // pass --computer-phrase-setter to have the computer pick the phrase, with --difficulty easy, medium or hard
+    // pass --evil to play against a computer that never settles on a word, and dodges every guess it can
+    // pass --journal with a directory to record every game there
+    // pass --batch to play through a script of games from stdin, see BatchUserInteractions for what goes in it
+    // pass --leaderboard with a directory to keep the guesser's results there, under the name given with --player
+    // pass --analytics with a file to write statistics over every game there as CSV at the end, see GameAnalytics
+    // pass --metrics-period with a number of seconds to print metrics to stderr that often, they're always on JMX too
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        HangmanMetrics.INSTANCE.register();
+        long metricsPeriod = Long.parseLong(option(options, "--metrics-period", "0"));
+        if (metricsPeriod > 0) {
+            HangmanMetrics.INSTANCE.startLogging(Duration.ofSeconds(metricsPeriod), System.err);
+        }
+        BatchUserInteractions batch = options.contains("--batch") ? new BatchUserInteractions(System.in, System.out)
+                                                                  : null;
+        TextUserInteractions textUi = batch != null ? batch : new CommandLineUserInteractions();
+        if (batch != null && !batch.hasMoreGames()) {
+            return; // an empty script
+        }
+        if (batch == null) {
+            textUi.setHints(new LetterHints(textUi.getDictionary()));
+        }
+        UserInteractions userInteractions = textUi;
+        if (options.contains("--computer-phrase-setter")) {
+            Difficulty difficulty = Difficulty.valueOf(option(options, "--difficulty", "medium").toUpperCase());
+            userInteractions = new ComputerPhraseSetterUserInteractions(userInteractions, textUi.getDictionary(),
+                                                                        difficulty);
+        }
+        if (options.contains("--computer-guesser")) {
+            userInteractions = new ComputerGuesserUserInteractions(userInteractions, textUi.getDictionary());
+        }
+        Supplier<PhraseAdversary> adversaries = null;
+        if (options.contains("--evil")) {
+            // group the words up in the background, so it's usually done by the time the first game starts
+            CompletableFuture<EvilHangman> evilHangman = textUi.getDictionary().whenLoaded()
+                                                                    .thenApplyAsync(EvilHangman::build);
+            Random random = new Random();
+            adversaries = () -> evilHangman.join().newGame(random);
+        }
+
+        String player = options.contains("--computer-guesser") ? COMPUTER_PLAYER
+                                                               : option(options, "--player", USER_NAME);
+        String leaderboardDirectory = option(options, "--leaderboard", null);
+        if (leaderboardDirectory != null && !Leaderboard.isValidName(player)) {
+            throw new IllegalArgumentException("not a valid name for the leaderboard, pass a --player: " + player);
+        }
+        Leaderboard leaderboard = leaderboardDirectory == null ? null
+                                                               : Leaderboard.open(Paths.get(leaderboardDirectory),
+                                                                                  LEADERBOARD_SNAPSHOT_PERIOD);
+
+        String analyticsFile = option(options, "--analytics", null);
+        GameAnalytics analytics = analyticsFile == null ? null : new GameAnalytics();
+
+        long start = System.nanoTime();
+        String journalDirectory = option(options, "--journal", null);
+        try {
+            if (journalDirectory == null) {
+                new Hangman(userInteractions, null, adversaries, leaderboard, player, analytics).playUntilQuit();
+            }
+            else {
+                try (GameJournal journal = new GameJournal(Paths.get(journalDirectory))) {
+                    new Hangman(userInteractions, journal, adversaries, leaderboard, player, analytics).playUntilQuit();
+                }
+            }
+        }
+        finally {
+            if (leaderboard != null) {
+                leaderboard.close();
+            }
+            if (analytics != null) {
+                analytics.writeCsv(Paths.get(analyticsFile));
+            }
+        }
+        if (leaderboard != null && leaderboard.get(player).isPresent()) {
+            System.err.println(String.format("%s, ranked %d of %,d", leaderboard.get(player).get(),
+                                             leaderboard.rank(player).getAsInt(), leaderboard.size()));
+        }
+        if (analytics != null) {
+            System.err.println(analytics);
+        }
+        if (batch != null) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.println(String.format("played %,d games in %.2f s (%,.0f games/sec), %,d abandoned",
+                                             batch.getGames(), seconds, batch.getGames() / seconds,
+                                             batch.getAbandonedGames()));
+        }
+    }
+
+    // the value following the given option on the command line, or the default if it's not there
+    private static String option(List<String> options, String name, String defaultValue) {
+        int index = options.indexOf(name);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : defaultValue;
     }
 }
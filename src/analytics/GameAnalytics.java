@@ -0,0 +1,332 @@
+package analytics;
+
+import game.GameListener;
+import game.GameStatus;
+import game.TurnResult;
+import ui.AsciiHangman;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics over every completed game, for tuning which words are easy or hard: the win rate of each word and each
+ * word length, how early each letter gets guessed and how often it's in the phrase, and how many wrong guesses games
+ * take out of the AsciiHangman.MAX_WRONG allowed.
+ *
+ * Games are fed in as they finish, from any number of threads: either through the GameListener from gameStarted(),
+ * which is given every turn of a game the same way a GameJournal is, or with the whole game at once to gameCompleted().
+ * Nothing is locked. Every count is an AtomicLongArray indexed by Letter.ordinal(), word length or number of wrong
+ * guesses, so recording a game is a couple of dozen atomic adds. Words get a small array each in a map, which stops
+ * taking new words at MAX_TRACKED_WORDS so memory stays bounded however many different phrases are played.
+ *
+ * The counts can be written out as a CSV file every so often (see startExporting()). Each line is
+ * type,key,count,successes,total where, for each type:
+ *   word      a word of the phrase (a phrase of several words counts for each of them): games, wins, wrong guesses
+ *   length    a word length, the same as for words
+ *   letter    a letter: times guessed, times it was in the phrase, the sum of which guess of the game it was (1 for
+ *             the first), so total / count is how early it's guessed on average
+ *   wrong     a number of wrong guesses (MAX_WRONG or more counts as MAX_WRONG): games, wins, 0
+ * The counts keep changing while they're written, so one line can be a game ahead of another, but no count is ever
+ * half written.
+ */
+public class GameAnalytics {
+    /** the most different words that are counted separately, past this new words only count towards their length */
+    public static final int MAX_TRACKED_WORDS = 1 << 17;
+
+    private static final int MAX_WORD_LENGTH = 32; // longer words are counted with this length
+    private static final int NUM_LETTERS = Letter.values().length;
+    private static final Letter[] LETTERS = Letter.values();
+
+    // per word and per length: [games, wins, wrong guesses], one set of 3 after another for the lengths
+    private static final int GAMES = 0;
+    private static final int WINS = 1;
+    private static final int WRONG_GUESSES = 2;
+    private static final int WORD_STATS = 3;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final Map<String, AtomicLongArray> words = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedWords = new AtomicInteger(); // since the map's size() isn't cheap
+    private final LongAdder untrackedWords = new LongAdder(); // words that came after the map was full
+    private final AtomicLongArray lengths = new AtomicLongArray((MAX_WORD_LENGTH + 1) * WORD_STATS);
+    private final AtomicLongArray letterGuesses = new AtomicLongArray(NUM_LETTERS); // indexed by Letter.ordinal()
+    private final AtomicLongArray letterHits = new AtomicLongArray(NUM_LETTERS);
+    private final AtomicLongArray letterGuessPositions = new AtomicLongArray(NUM_LETTERS); // sum of which guess it was
+    private final AtomicLongArray wrongGuessGames = new AtomicLongArray(AsciiHangman.MAX_WRONG + 1);
+    private final AtomicLongArray wrongGuessWins = new AtomicLongArray(AsciiHangman.MAX_WRONG + 1);
+
+    /**
+     * a listener to give a Game for the given phrase, which records the game here once it's over. Only for games where
+     * the phrase is picked up front, not ones against a PhraseAdversary
+     */
+    public GameListener gameStarted(Phrase phraseToGuess, int maxWrongGuesses) {
+        return new GameTracker(phraseToGuess);
+    }
+
+    /**
+     * record a game that's over: its phrase, every turn taken in order, and the status it finished with
+     * throws IllegalArgumentException if the status isn't one a game ends with
+     */
+    public void gameCompleted(Phrase phrase, List<TurnResult> turns, GameStatus status) {
+        if (!status.isGameOver()) {
+            throw new IllegalArgumentException("the game isn't over: " + status);
+        }
+        GameTracker tracker = new GameTracker(phrase);
+        for (int i = 0; i < turns.size(); i++) {
+            tracker.turnApplied(turns.get(i), i == turns.size() - 1 ? status : GameStatus.GUESSING);
+        }
+        if (!tracker.over) { // there weren't any turns, e.g. a game that was given up on
+            tracker.gameOver(status);
+        }
+    }
+
+    // count one finished game, where the letters guessed are the first letterGuessCount of guessOrder (ordinals)
+    private void record(Phrase phrase, byte[] guessOrder, int letterGuessCount, int wrongGuesses, GameStatus status) {
+        boolean won = status.isGuesserWin();
+        games.increment();
+        if (won) {
+            wins.increment();
+        }
+
+        for (int guess = 0; guess < letterGuessCount; guess++) {
+            int letter = guessOrder[guess];
+            letterGuesses.incrementAndGet(letter);
+            letterGuessPositions.addAndGet(letter, guess + 1);
+            if (phrase.contains(LETTERS[letter])) {
+                letterHits.incrementAndGet(letter);
+            }
+        }
+
+        int wrongBucket = Math.min(wrongGuesses, AsciiHangman.MAX_WRONG);
+        wrongGuessGames.incrementAndGet(wrongBucket);
+        if (won) {
+            wrongGuessWins.incrementAndGet(wrongBucket);
+        }
+
+        for (String word : phrase.asRawString().split(" ")) {
+            if (!word.isEmpty()) {
+                int length = Math.min(word.length(), MAX_WORD_LENGTH);
+                addGame(lengths, length * WORD_STATS, won, wrongGuesses);
+                AtomicLongArray wordStats = wordStats(word);
+                if (wordStats != null) {
+                    addGame(wordStats, 0, won, wrongGuesses);
+                }
+            }
+        }
+    }
+
+    private static void addGame(AtomicLongArray stats, int offset, boolean won, int wrongGuesses) {
+        stats.incrementAndGet(offset + GAMES);
+        if (won) {
+            stats.incrementAndGet(offset + WINS);
+        }
+        stats.addAndGet(offset + WRONG_GUESSES, wrongGuesses);
+    }
+
+    // the counts for the given word, or null if it's new and there are already MAX_TRACKED_WORDS being counted
+    private AtomicLongArray wordStats(String word) {
+        AtomicLongArray stats = words.get(word);
+        if (stats == null) {
+            if (trackedWords.get() >= MAX_TRACKED_WORDS) {
+                untrackedWords.increment();
+                return null;
+            }
+            stats = words.computeIfAbsent(word, newWord -> {
+                trackedWords.incrementAndGet(); // might go a little over when threads race here, but not by much
+                return new AtomicLongArray(WORD_STATS);
+            });
+        }
+        return stats;
+    }
+
+    /** the number of games recorded */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /** the fraction of games the guesser won, 0 if there haven't been any */
+    public double getWinRate() {
+        long games = getGames();
+        return games == 0 ? 0 : (double) wins.sum() / games;
+    }
+
+    /** the fraction of games with the given word in the phrase that the guesser won, or NaN if it hasn't been played */
+    public double getWinRate(String word) {
+        AtomicLongArray stats = words.get(word.toUpperCase());
+        return stats == null ? Double.NaN : (double) stats.get(WINS) / stats.get(GAMES);
+    }
+
+    /** the fraction of games with a word of the given length that the guesser won, or NaN if there haven't been any */
+    public double getWinRateForLength(int length) {
+        int offset = Math.min(length, MAX_WORD_LENGTH) * WORD_STATS;
+        long games = lengths.get(offset + GAMES);
+        return games == 0 ? Double.NaN : (double) lengths.get(offset + WINS) / games;
+    }
+
+    /** the fraction of the times the given letter was guessed that it was in the phrase, or NaN if it never was */
+    public double getHitRate(Letter letter) {
+        long guesses = letterGuesses.get(letter.ordinal());
+        return guesses == 0 ? Double.NaN : (double) letterHits.get(letter.ordinal()) / guesses;
+    }
+
+    /** which guess of the game the given letter is on average, 1 for the first, or NaN if it's never been guessed */
+    public double getAverageGuessPosition(Letter letter) {
+        long guesses = letterGuesses.get(letter.ordinal());
+        return guesses == 0 ? Double.NaN : (double) letterGuessPositions.get(letter.ordinal()) / guesses;
+    }
+
+    /** the number of games that took the given number of wrong guesses, with MAX_WRONG or more all counted together */
+    public long getGamesWithWrongGuesses(int wrongGuesses) {
+        return wrongGuessGames.get(Math.min(wrongGuesses, AsciiHangman.MAX_WRONG));
+    }
+
+    /** the number of different words counted so far */
+    public int getTrackedWords() {
+        return trackedWords.get();
+    }
+
+    /**
+     * write every count to the given file as CSV (see the class comment), replacing it in one step. Only one is
+     * written at a time, since they'd all go through the same temp file
+     */
+    public synchronized void writeCsv(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write("type,key,count,successes,total\n");
+            for (Map.Entry<String, AtomicLongArray> word : words.entrySet()) {
+                writeLine(out, "word", word.getKey().toLowerCase(), word.getValue(), 0);
+            }
+            for (int length = 1; length <= MAX_WORD_LENGTH; length++) {
+                if (lengths.get(length * WORD_STATS + GAMES) > 0) {
+                    writeLine(out, "length", String.valueOf(length), lengths, length * WORD_STATS);
+                }
+            }
+            for (Letter letter : LETTERS) {
+                int i = letter.ordinal();
+                writeLine(out, "letter", Letter.asString(letter), letterGuesses.get(i), letterHits.get(i),
+                          letterGuessPositions.get(i));
+            }
+            for (int wrong = 0; wrong <= AsciiHangman.MAX_WRONG; wrong++) {
+                writeLine(out, "wrong", String.valueOf(wrong), wrongGuessGames.get(wrong), wrongGuessWins.get(wrong),
+                          0);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeLine(BufferedWriter out, String type, String key, AtomicLongArray stats, int offset)
+            throws IOException {
+        writeLine(out, type, key, stats.get(offset + GAMES), stats.get(offset + WINS),
+                  stats.get(offset + WRONG_GUESSES));
+    }
+
+    private static void writeLine(BufferedWriter out, String type, String key, long count, long successes, long total)
+            throws IOException {
+        out.write(type);
+        out.write(',');
+        out.write(key);
+        out.write(',');
+        out.write(Long.toString(count));
+        out.write(',');
+        out.write(Long.toString(successes));
+        out.write(',');
+        out.write(Long.toString(total));
+        out.write('\n');
+    }
+
+    /**
+     * write the counts to the given CSV file every period, on a background daemon thread, printing any problems to the
+     * given stream. Returns the scheduler doing it, so it can be shut down
+     */
+    public ScheduledExecutorService startExporting(Path file, Duration period, PrintStream errors) {
+        ScheduledExecutorService exporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "analytics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> {
+            try {
+                writeCsv(file);
+            }
+            catch (IOException | UncheckedIOException e) {
+                errors.println("couldn't export game analytics: " + e.getMessage()); // next time might work
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+        return exporter;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("analytics: %,d games, %.1f%% won, %,d words tracked (%,d not tracked)", getGames(),
+                             getWinRate() * 100, getTrackedWords(), untrackedWords.sum());
+    }
+
+    // follows one game's turns until it's over. Only the thread playing the game uses it, so nothing here is shared
+    private final class GameTracker implements GameListener {
+        private final Phrase phrase;
+        private final byte[] guessOrder = new byte[NUM_LETTERS]; // ordinals, in the order they were first guessed
+        private int letterGuessCount;
+        // the wrong guesses, counted the same way the Game does: a letter or phrase guessed wrong twice is one miss
+        private int guessedLetters; // LetterMask
+        private int wrongLetters; // LetterMask
+        private Set<Phrase> wrongPhrases; // null until there is one, since most games don't have any
+        private boolean over;
+
+        private GameTracker(Phrase phrase) {
+            this.phrase = phrase;
+        }
+
+        @Override
+        public void turnApplied(TurnResult turnResult, GameStatus gameStatus) {
+            if (over) {
+                return;
+            }
+            if (turnResult.getType() == TurnResult.TurnType.GUESSED_LETTER) {
+                Letter letter = turnResult.getGuessedLetter();
+                if (!LetterMask.contains(guessedLetters, letter)) {
+                    guessedLetters |= LetterMask.of(letter);
+                    guessOrder[letterGuessCount++] = (byte) letter.ordinal();
+                    if (!phrase.contains(letter)) {
+                        wrongLetters |= LetterMask.of(letter);
+                    }
+                }
+            }
+            else if (gameStatus != GameStatus.GUESSED_PHRASE_CORRECTLY) {
+                if (wrongPhrases == null) {
+                    wrongPhrases = new HashSet<>();
+                }
+                wrongPhrases.add(turnResult.getGuessedPhrase());
+            }
+            if (gameStatus.isGameOver()) {
+                gameOver(gameStatus);
+            }
+        }
+
+        private void gameOver(GameStatus status) {
+            over = true;
+            int wrongGuesses = LetterMask.size(wrongLetters) + (wrongPhrases == null ? 0 : wrongPhrases.size());
+            record(phrase, guessOrder, letterGuessCount, wrongGuesses, status);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bot;
+
+/**
+ * How hard a word the computer should pick when it's setting the phrase. Every playable word in the dictionary is
+ * ranked by how hard it is to guess, and the ranking is split evenly between these, easiest first.
+ */
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD
+}
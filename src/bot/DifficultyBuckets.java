@@ -0,0 +1,193 @@
+package bot;
+
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Every playable dictionary word sorted into Difficulty buckets, so the computer can pick a phrase of a given
+ * difficulty with one random draw. How hard a word is comes down to three things:
+ * - how many different letters it has: every one of them is a chance for a guess to hit, so fewer is harder
+ * - how rare those letters are: a guesser goes for the common letters first, so words made of rare ones ("jazz")
+ *   rack up misses before anything gets revealed
+ * - how ambiguous its pattern is: the more words that share its length and its repeated letter pattern, the more
+ *   candidates a guesser has to narrow down, which is what makes short words like "wax" or "fig" hard
+ *
+ * All the scoring happens once, up front, spread over every core, and then each bucket is just an int[] of word
+ * numbers. The words themselves are kept as their Letter ordinals, a byte each, one word after another, so there
+ * isn't a String for every word alongside the dictionary's own copy. Picking a word is a random index into a bucket,
+ * with nothing to scan or sort, and only the word that's picked is turned back into text.
+ * Once built this is read-only, so it can be shared between threads.
+ */
+public class DifficultyBuckets {
+    private static final int MIN_LENGTH = 3; // shorter words don't make much of a game
+    private static final int NUM_LETTERS = Letter.values().length;
+
+    // how much each part of the score counts, roughly balancing how much each one changes between easy and hard words
+    private static final double DISTINCT_LETTERS_WEIGHT = 1.0;
+    private static final double RARITY_WEIGHT = 2.0;
+    private static final double AMBIGUITY_WEIGHT = 0.5;
+
+    private final byte[] letters; // every playable word's Letter ordinals, one word after another
+    private final int[] starts; // where each word starts in letters, then where the last one ends
+    private final int[][] buckets; // [Difficulty ordinal] -> word numbers, indexes into starts
+
+    private DifficultyBuckets(byte[] letters, int[] starts, int[][] buckets) {
+        this.letters = letters;
+        this.starts = starts;
+        this.buckets = buckets;
+    }
+
+    /** score every playable word in the dictionary and split them into buckets, waiting for it to load if needed */
+    public static DifficultyBuckets build(Dictionary dictionary) {
+        ByteArrayOutputStream letters = new ByteArrayOutputStream(1 << 20);
+        IntStream.Builder starts = IntStream.builder();
+        dictionary.forEachWord(word -> {
+            if (isPlayable(word)) {
+                starts.add(letters.size());
+                for (int i = 0; i < word.length(); i++) {
+                    letters.write(Letter.lookup(word.charAt(i)).ordinal());
+                }
+            }
+        });
+        starts.add(letters.size());
+
+        byte[] packed = letters.toByteArray();
+        int[] wordStarts = starts.build().toArray();
+        return new DifficultyBuckets(packed, wordStarts, split(scores(packed, wordStarts)));
+    }
+
+    /** pick a random word of the given difficulty, or null if there aren't any (e.g. the dictionary didn't load) */
+    public Phrase pick(Difficulty difficulty, Random random) {
+        int[] bucket = buckets[difficulty.ordinal()];
+        if (bucket.length == 0) {
+            return null;
+        }
+        return Phrase.fromString(word(letters, starts, bucket[random.nextInt(bucket.length)]));
+    }
+
+    // the given word number as text, from its Letter ordinals
+    private static CharSequence word(byte[] letters, int[] starts, int word) {
+        char[] chars = new char[starts[word + 1] - starts[word]];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('A' + letters[starts[word] + i]);
+        }
+        return CharBuffer.wrap(chars);
+    }
+
+    /** the number of words of the given difficulty */
+    public int size(Difficulty difficulty) {
+        return buckets[difficulty.ordinal()].length;
+    }
+
+    // only words made of nothing but letters can be played (e.g. not "don't"), and they have to be long enough
+    private static boolean isPlayable(String word) {
+        if (word.length() < MIN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Letter.lookup(word.charAt(i)) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // how hard each word is to guess, higher is harder
+    private static double[] scores(byte[] letters, int[] starts) {
+        int numWords = starts.length - 1;
+        int[] letterMasks = new int[numWords];
+        Arrays.parallelSetAll(letterMasks, i -> letterMask(letters, starts[i], starts[i + 1]));
+
+        // a letter's rarity is how many bits of surprise it is to find it in a word, -log2(fraction of words with it)
+        int[] wordsWithLetter = new int[NUM_LETTERS];
+        for (int mask : letterMasks) {
+            for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+                wordsWithLetter[Integer.numberOfTrailingZeros(remaining)]++;
+            }
+        }
+        double[] rarity = new double[NUM_LETTERS];
+        for (int letter = 0; letter < NUM_LETTERS; letter++) {
+            rarity[letter] = -log2(Math.max(1, wordsWithLetter[letter]) / (double) numWords);
+        }
+
+        // how many words share each pattern
+        String[] patterns = new String[numWords];
+        Arrays.parallelSetAll(patterns, i -> pattern(letters, starts[i], starts[i + 1]));
+        Map<String, Integer> wordsWithPattern = new ConcurrentHashMap<>();
+        Arrays.stream(patterns).parallel().forEach(pattern -> wordsWithPattern.merge(pattern, 1, Integer::sum));
+
+        double[] scores = new double[numWords];
+        Arrays.parallelSetAll(scores, i -> {
+            int distinctLetters = LetterMask.size(letterMasks[i]);
+            double totalRarity = 0;
+            for (int remaining = letterMasks[i]; remaining != 0; remaining &= remaining - 1) {
+                totalRarity += rarity[Integer.numberOfTrailingZeros(remaining)];
+            }
+            return RARITY_WEIGHT * totalRarity / distinctLetters
+                   + AMBIGUITY_WEIGHT * log2(wordsWithPattern.get(patterns[i]))
+                   - DISTINCT_LETTERS_WEIGHT * distinctLetters;
+        });
+        return scores;
+    }
+
+    // rank the words by score and split the ranking evenly into one bucket per Difficulty
+    private static int[][] split(double[] scores) {
+        // sort score and index packed together in a long, so the sort is on primitives rather than boxed indexes
+        long[] ranked = new long[scores.length];
+        Arrays.parallelSetAll(ranked, i -> ((long) sortableBits((float) scores[i]) << 32) | i);
+        Arrays.parallelSort(ranked);
+
+        Difficulty[] difficulties = Difficulty.values();
+        int[][] buckets = new int[difficulties.length][];
+        for (int d = 0; d < difficulties.length; d++) {
+            int start = (int) ((long) scores.length * d / difficulties.length);
+            int end = (int) ((long) scores.length * (d + 1) / difficulties.length);
+            buckets[d] = IntStream.range(start, end).map(rank -> (int) ranked[rank]).toArray();
+        }
+        return buckets;
+    }
+
+    // the letters in the word between start and end of the packed letters
+    private static int letterMask(byte[] letters, int start, int end) {
+        int mask = LetterMask.NONE;
+        for (int i = start; i < end; i++) {
+            mask |= 1 << letters[i];
+        }
+        return mask;
+    }
+
+    // the word's length and where its letters repeat, e.g. "jazz" and "tell" are both "abcc"
+    private static String pattern(byte[] letters, int start, int end) {
+        int[] labels = new int[NUM_LETTERS]; // 1 + the label given to each letter, 0 if it hasn't been seen yet
+        int nextLabel = 0;
+        char[] pattern = new char[end - start];
+        for (int i = 0; i < pattern.length; i++) {
+            int letter = letters[start + i];
+            if (labels[letter] == 0) {
+                labels[letter] = ++nextLabel;
+            }
+            pattern[i] = (char) ('a' + labels[letter] - 1);
+        }
+        return new String(pattern);
+    }
+
+    // the float's bits as an int that sorts the same way the floats do, negative numbers included
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
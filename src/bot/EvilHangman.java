@@ -0,0 +1,314 @@
+package bot;
+
+import game.PhraseAdversary;
+import words.Dictionary;
+import words.Letter;
+import words.Phrase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * A computer phrase setter that cheats: it never picks a word, and instead keeps every dictionary word that fits what
+ * the guesser has seen so far. When a letter is guessed, the remaining words are split into families by where that
+ * letter shows up in them (e.g. guessing E splits them into "no E", "E at the end", "E second and fourth"...), and it
+ * carries on with whichever family is biggest. So the guesser only gets a letter when every other option is worse.
+ *
+ * This holds the words, grouped by length, and is read-only once built, so one can be shared by every game. Each game
+ * gets its own PhraseAdversary from newGame(), which keeps its own list of remaining words.
+ *
+ * A turn has to split up to tens of thousands of words, so the words are stored as Letter ordinals packed 8 to a long,
+ * one byte per letter, in one long array per length. That lets a word's family (the bitmask of positions the guessed
+ * letter is at) be worked out 8 letters at a time with a few arithmetic operations and no branches, see family(). The
+ * families are counted in a small hash table of those bitmasks, all primitive, so splitting is one pass over the words
+ * with no Strings and no boxing.
+ */
+public class EvilHangman {
+    private static final int MAX_LENGTH = Long.SIZE - 1; // families are position bitmasks in a long
+    private static final int MIN_GAME_LENGTH = 4;        // picking a length for a game, shorter is too easy to lose
+    private static final int MAX_GAME_LENGTH = 12;       // and longer gives the guesser too many letters to go on
+
+    private static final long PADDING = 0xFF;           // fills the bytes after a word's last letter, never a letter
+    private static final long EVERY_BYTE = 0x0101010101010101L; // times a byte value, gives that value in every byte
+    private static final long LOW_7_BITS = 0x7F7F7F7F7F7F7F7FL; // every bit except the top one of each byte
+    private static final long GATHER = 0x0102040810204080L;     // moves the low bit of each byte up into the top byte
+
+    private final long[][] packedByLength; // [length] -> the letters of every word that long, see longsPerWord()
+
+    private EvilHangman(long[][] packedByLength) {
+        this.packedByLength = packedByLength;
+    }
+
+    /** group every playable word in the dictionary by length, waiting for it to load if needed */
+    public static EvilHangman build(Dictionary dictionary) {
+        List<LongStream.Builder> packed = new ArrayList<>();
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            packed.add(LongStream.builder());
+        }
+        dictionary.forEachWord(word -> {
+            if (word.isEmpty() || word.length() > MAX_LENGTH) {
+                return;
+            }
+            long[] wordLongs = new long[longsPerWord(word.length())];
+            Arrays.fill(wordLongs, -1); // every byte PADDING, until a letter goes in it
+            for (int i = 0; i < word.length(); i++) {
+                Letter letter = Letter.lookup(word.charAt(i));
+                if (letter == null) {
+                    return; // only words made of nothing but letters can be played (e.g. not "don't")
+                }
+                int shift = Byte.SIZE * (i % Long.BYTES);
+                wordLongs[i / Long.BYTES] &= ~(PADDING << shift);
+                wordLongs[i / Long.BYTES] |= (long) letter.ordinal() << shift;
+            }
+            LongStream.Builder builder = packed.get(word.length());
+            for (long wordLong : wordLongs) {
+                builder.add(wordLong);
+            }
+        });
+
+        long[][] packedByLength = new long[MAX_LENGTH + 1][];
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            packedByLength[length] = packed.get(length).build().toArray();
+        }
+        return new EvilHangman(packedByLength);
+    }
+
+    // each word takes up this many longs, 8 letters in each, starting from the lowest byte
+    private static int longsPerWord(int length) {
+        return (length + Long.BYTES - 1) / Long.BYTES;
+    }
+
+    /** the number of words of the given length */
+    public int size(int length) {
+        return length > 0 && length <= MAX_LENGTH ? packedByLength[length].length / longsPerWord(length) : 0;
+    }
+
+    /** start a game with a word of a random length, more likely to be a length that has more words */
+    public PhraseAdversary newGame(Random random) {
+        int words = 0;
+        for (int length = MIN_GAME_LENGTH; length <= MAX_GAME_LENGTH; length++) {
+            words += size(length);
+        }
+        if (words == 0) {
+            throw new IllegalStateException("no words to play with, did the dictionary load?");
+        }
+        int pick = random.nextInt(words);
+        int length = MIN_GAME_LENGTH;
+        while (pick >= size(length)) {
+            pick -= size(length);
+            length++;
+        }
+        return newGame(length);
+    }
+
+    /**
+     * start a game with a word of the given length
+     * throws IllegalArgumentException if there aren't any words that long
+     */
+    public PhraseAdversary newGame(int length) {
+        if (size(length) == 0) {
+            throw new IllegalArgumentException("no words with " + length + " letters");
+        }
+        return new Adversary(length, packedByLength[length], size(length));
+    }
+
+    /**
+     * the positions of the given Letter ordinal among 8 packed letters, as a bitmask in the low 8 bits. This checks all
+     * 8 bytes at once: xor makes the bytes holding the letter 0, then the usual zero byte test sets the top bit of just
+     * those bytes (adding 0x7F to the low 7 bits only carries into the top bit for a non-zero byte, and or-ing in x
+     * catches the bytes whose own top bit was set). Finally a multiply moves those 8 scattered bits next to each other.
+     */
+    static long family(long packed, int letter) {
+        long x = packed ^ (letter * EVERY_BYTE);
+        long zeroBytes = ~(((x & LOW_7_BITS) + LOW_7_BITS) | x | LOW_7_BITS);
+        return ((zeroBytes >>> 7) * GATHER) >>> (Long.SIZE - Long.BYTES);
+    }
+
+    // one game's worth of remaining words
+    private static class Adversary implements PhraseAdversary {
+        private final int length;
+        private final int longsPerWord;
+        private final long[] packed;   // shared, every word of this length
+        private final int[] remaining; // indexes of the words that still fit, the first remainingCount of them
+        private int remainingCount;
+        private final long[] families; // scratch, the family of each remaining word for the letter being guessed
+        private final FamilyCounter familyCounter = new FamilyCounter();
+
+        private Phrase phrase; // the phrase for the first remaining word, which we show if the game ends
+        private int phraseWord = -1; // the word that phrase is for
+
+        private Adversary(int length, long[] packed, int words) {
+            this.length = length;
+            this.longsPerWord = longsPerWord(length);
+            this.packed = packed;
+            this.remainingCount = words;
+            this.remaining = new int[remainingCount];
+            for (int i = 0; i < remainingCount; i++) {
+                remaining[i] = i;
+            }
+            this.families = new long[remainingCount];
+        }
+
+        @Override
+        public Phrase initialPhrase() {
+            return currentPhrase();
+        }
+
+        @Override
+        public Phrase afterLetterGuessed(Letter guessedLetter) {
+            int letter = guessedLetter.ordinal();
+
+            // work out every word's family, and count how big each family is
+            familyCounter.clear();
+            for (int i = 0; i < remainingCount; i++) {
+                long family;
+                if (longsPerWord == 1) { // most words fit in one long, so skip the loop for them
+                    family = family(packed[remaining[i]], letter);
+                }
+                else {
+                    family = 0;
+                    int start = remaining[i] * longsPerWord;
+                    for (int j = 0; j < longsPerWord; j++) {
+                        family |= family(packed[start + j], letter) << (Long.BYTES * j);
+                    }
+                }
+                families[i] = family;
+                familyCounter.add(family);
+            }
+
+            // keep only the words in the biggest family
+            long keep = familyCounter.biggestFamily();
+            int kept = 0;
+            for (int i = 0; i < remainingCount; i++) {
+                if (families[i] == keep) {
+                    remaining[kept++] = remaining[i];
+                }
+            }
+            remainingCount = kept;
+            return currentPhrase();
+        }
+
+        @Override
+        public Phrase afterPhraseGuessed(Phrase guessedPhrase) {
+            // drop the guessed word if there's anything else left, so the guess is wrong whenever it can be
+            if (remainingCount > 1 && guessedPhrase.length() == length) {
+                for (int i = 0; i < remainingCount; i++) {
+                    if (isWord(remaining[i], guessedPhrase)) {
+                        remaining[i] = remaining[--remainingCount];
+                        break;
+                    }
+                }
+            }
+            return currentPhrase();
+        }
+
+        private boolean isWord(int word, Phrase phrase) {
+            for (int position = 0; position < length; position++) {
+                Letter letter = phrase.letterAt(position);
+                if (letter == null || letterAt(word, position) != letter.ordinal()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // the Letter ordinal at the given position of the given word
+        private int letterAt(int word, int position) {
+            long wordLong = packed[word * longsPerWord + position / Long.BYTES];
+            return (int) (wordLong >>> (Byte.SIZE * (position % Long.BYTES))) & 0xFF;
+        }
+
+        // the phrase for the first remaining word, only made again when that word changes
+        private Phrase currentPhrase() {
+            int word = remaining[0];
+            if (word != phraseWord) {
+                char[] chars = new char[length];
+                for (int position = 0; position < length; position++) {
+                    chars[position] = (char) ('A' + letterAt(word, position));
+                }
+                phrase = Phrase.fromString(new String(chars));
+                phraseWord = word;
+            }
+            return phrase;
+        }
+    }
+
+    // counts how many words are in each family, in an open addressing hash table keyed by the family's position mask
+    private static class FamilyCounter {
+        private static final int INITIAL_CAPACITY = 64; // a power of two, and usually plenty
+
+        private long[] keys = new long[INITIAL_CAPACITY]; // family + 1, so that 0 can mean an empty slot
+        private int[] counts = new int[INITIAL_CAPACITY];
+        private int size;
+
+        // forget every family, ready for the next guess
+        private void clear() {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        private void add(long family) {
+            long key = family + 1;
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                counts[slot] = 0; // left over from before the last clear()
+                if (++size * 2 > keys.length) { // keep it at most half full, so probes stay short
+                    grow();
+                    add(family);
+                    return;
+                }
+            }
+            counts[slot]++;
+        }
+
+        // the family with the most words, and if there's a tie, the one that reveals the fewest letters
+        private long biggestFamily() {
+            long best = 0;
+            int bestCount = -1;
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    long family = keys[slot] - 1;
+                    int count = counts[slot];
+                    if (count > bestCount || (count == bestCount && Long.bitCount(family) < Long.bitCount(best))) {
+                        best = family;
+                        bestCount = count;
+                    }
+                }
+            }
+            return best;
+        }
+
+        // double the table, moving every family over to its new slot
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        // position masks are mostly low bits, so spread them out before using them to pick a slot
+        private static long mix(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 32);
+        }
+    }
+}
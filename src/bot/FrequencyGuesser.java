@@ -0,0 +1,132 @@
+package bot;
+
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.WordIndex;
+
+import java.util.Arrays;
+
+/**
+ * A computer player that guesses letters. For each word in the phrase it finds every dictionary word that still fits
+ * (matches the revealed letters, and doesn't have any guessed letters in the hidden spots), and guesses whichever
+ * letter shows up in the most of those candidates. The candidates come from a WordIndex, so each guess is a handful of
+ * bitset operations rather than a scan through the dictionary.
+ *
+ * This keeps scratch arrays between guesses so it doesn't allocate on every turn, which means one FrequencyGuesser
+ * shouldn't be used from more than one thread at a time. The WordIndex can be shared though.
+ */
+public class FrequencyGuesser {
+    private static final Letter[] LETTERS = Letter.values();
+
+    // most common letters in English, for guessing when none of the dictionary words match (e.g. a made up word)
+    private static final Letter[] FALLBACK_ORDER = "ETAOINSHRDLCUMWFGYPBVKJXQZ".chars()
+                                                                             .mapToObj(c -> Letter.fromChar((char) c))
+                                                                             .toArray(Letter[]::new);
+
+    private final WordIndex wordIndex;
+
+    // scratch space, reused for every guess
+    private final double[] scores = new double[LETTERS.length]; // how useful guessing each letter would be
+    private final int[] counts = new int[LETTERS.length]; // number of candidates containing each letter, for one word
+    private Letter[] pattern = new Letter[0]; // the revealed letters of one word, null where they're still hidden
+    private long[][] candidatesByLength = new long[0][]; // candidate bitsets, one for each word length we've seen
+
+    public FrequencyGuesser(WordIndex wordIndex) {
+        this.wordIndex = wordIndex;
+    }
+
+    /** the words this guesser picks letters from */
+    public WordIndex getWordIndex() {
+        return wordIndex;
+    }
+
+    /**
+     * pick the next letter to guess for the given phrase. Only the letters in correctlyGuessedLetters are looked at,
+     * so this never uses anything the guessing player couldn't see. Both sets of letters are LetterMasks
+     */
+    public Letter nextGuess(Phrase phrase, int correctlyGuessedLetters, int incorrectlyGuessedLetters) {
+        int guessedLetters = correctlyGuessedLetters | incorrectlyGuessedLetters;
+        int availableLetters = LetterMask.ALL & ~guessedLetters;
+        if (availableLetters == LetterMask.NONE) {
+            throw new IllegalStateException("every letter has already been guessed");
+        }
+
+        // score the letters one word at a time, words are separated by spaces (null letters)
+        Arrays.fill(scores, 0);
+        int wordStart = 0;
+        for (int i = 0; i <= phrase.length(); i++) {
+            if (i == phrase.length() || phrase.letterAt(i) == null) {
+                scoreWord(phrase, wordStart, i, correctlyGuessedLetters, guessedLetters, availableLetters);
+                wordStart = i + 1;
+            }
+        }
+
+        Letter best = null;
+        for (int remaining = availableLetters; remaining != 0; remaining &= remaining - 1) {
+            int letter = Integer.numberOfTrailingZeros(remaining);
+            if (scores[letter] > 0 && (best == null || scores[letter] > scores[best.ordinal()])) {
+                best = LETTERS[letter];
+            }
+        }
+        return best != null ? best : fallbackGuess(availableLetters);
+    }
+
+    // add the chance of each available letter being in the word between start and end to its score
+    private void scoreWord(Phrase phrase, int start, int end, int correctlyGuessedLetters, int guessedLetters,
+                           int availableLetters) {
+        int length = end - start;
+        if (length == 0) {
+            return;
+        }
+
+        if (pattern.length < length) {
+            pattern = new Letter[length];
+        }
+        boolean anyHidden = false;
+        for (int i = 0; i < length; i++) {
+            // only keep the letter if it's been guessed, i.e. it would be showing on the screen
+            Letter letter = phrase.letterAt(start + i);
+            pattern[i] = LetterMask.contains(correctlyGuessedLetters, letter) ? letter : null;
+            anyHidden |= pattern[i] == null;
+        }
+        if (!anyHidden) { // already solved this word, nothing to learn from it
+            return;
+        }
+
+        long[] candidates = candidatesFor(length);
+        int numCandidates = wordIndex.match(pattern, length, guessedLetters, candidates);
+        if (numCandidates == 0) {
+            return;
+        }
+
+        Arrays.fill(counts, 0);
+        wordIndex.countLetters(length, candidates, availableLetters, counts);
+        for (int letter = 0; letter < counts.length; letter++) {
+            // use the fraction of candidates rather than the count, so a word with lots of candidates doesn't drown out
+            // a word that's nearly solved
+            scores[letter] += (double) counts[letter] / numCandidates;
+        }
+    }
+
+    // the reusable candidate bitset for words of the given length
+    private long[] candidatesFor(int length) {
+        if (candidatesByLength.length <= length) {
+            candidatesByLength = Arrays.copyOf(candidatesByLength, length + 1);
+        }
+        if (candidatesByLength[length] == null) {
+            candidatesByLength[length] = wordIndex.newCandidates(length);
+        }
+        return candidatesByLength[length];
+    }
+
+    // the most common English letter that's still available
+    private static Letter fallbackGuess(int availableLetters) {
+        for (Letter letter : FALLBACK_ORDER) {
+            if (LetterMask.contains(availableLetters, letter)) {
+                return letter;
+            }
+        }
+        throw new IllegalStateException("every letter has already been guessed");
+    }
+}
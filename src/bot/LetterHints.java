@@ -0,0 +1,227 @@
+package bot;
+
+import metrics.HangmanMetrics;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.WordIndex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hints for the guessing player: the letter a FrequencyGuesser would guess next, i.e. the one in the most dictionary
+ * words that still fit what's on the screen. One of these is meant to be shared by every game in the process.
+ *
+ * Working a hint out means matching every word of the phrase against the dictionary, but real games keep running
+ * into the same few states (everyone starts with a blank word of some length, then guesses E...), so hints are kept in
+ * a bounded LRU cache keyed by what the player can see: the revealed pattern and the wrong letters. That's all the
+ * guesser looks at, so any two games showing the same thing get the same hint. The cache is split into stripes, each
+ * its own access ordered LinkedHashMap behind its own lock, so threads asking for hints at once mostly don't wait on
+ * each other, and a miss is worked out outside the lock so a slow one doesn't hold anyone else up.
+ *
+ * Hints always come from the dictionary's current words. Each one is worked out with the WordIndex the dictionary has
+ * at the time, and cached under it, so once the dictionary reloads a different word list, threads move on to guessers
+ * for the new index, and hints from the old one stop matching. The cache is also cleared when the first thread sees
+ * the new index, so the old hints aren't left holding on to it.
+ *
+ * The cache size can be set with the hangman.hints.cacheSize system property.
+ */
+public class LetterHints {
+    // system property for the most hints to keep cached, e.g. -Dhangman.hints.cacheSize=100000
+    private static final String CACHE_SIZE_PROPERTY = "hangman.hints.cacheSize";
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final int STRIPES = 16; // a power of two
+
+    private static final char SPACE = ' ';
+    private static final char HIDDEN = '-';
+
+    private final Dictionary dictionary;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile WordIndex cachedIndex; // the index the cache was last cleared for
+
+    // FrequencyGuesser keeps scratch space between guesses, so each thread works out hints with its own
+    private final ThreadLocal<FrequencyGuesser> guessers;
+
+    /** hints from the given dictionary, with the cache size from the system property */
+    public LetterHints(Dictionary dictionary) {
+        this(dictionary, Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+    }
+
+    /** hints from the given dictionary, caching up to about capacity of them */
+    public LetterHints(Dictionary dictionary, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("cache size can't be negative: " + capacity);
+        }
+        this.dictionary = dictionary;
+        this.guessers = new ThreadLocal<>();
+        this.capacity = capacity;
+        int stripeCapacity = (capacity + STRIPES - 1) / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * the letter to suggest guessing next. Only the letters of the phrase in correctlyGuessedLetters are looked at, so
+     * this never gives away anything the player couldn't see. Both sets of letters are LetterMasks
+     */
+    public Letter hintFor(Phrase phrase, int correctlyGuessedLetters, int incorrectlyGuessedLetters) {
+        WordIndex index = dictionary.getWordIndex();
+        if (index != cachedIndex) {
+            clearFor(index);
+        }
+        Key key = new Key(index, revealedPattern(phrase, correctlyGuessedLetters), incorrectlyGuessedLetters);
+        Stripe stripe = stripes[key.hash & (STRIPES - 1)];
+        Letter hint = stripe.get(key);
+        HangmanMetrics.INSTANCE.hintLookedUp(hint != null);
+        if (hint != null) {
+            hits.increment();
+            return hint;
+        }
+
+        misses.increment();
+        hint = guesser(index).nextGuess(phrase, correctlyGuessedLetters, incorrectlyGuessedLetters);
+        stripe.put(key, hint);
+        return hint;
+    }
+
+    // this thread's guesser, for the given index. A new one if the dictionary's words have changed since the last
+    private FrequencyGuesser guesser(WordIndex index) {
+        FrequencyGuesser guesser = guessers.get();
+        if (guesser == null || guesser.getWordIndex() != index) {
+            guesser = new FrequencyGuesser(index);
+            guessers.set(guesser);
+        }
+        return guesser;
+    }
+
+    // throw away every hint from an older index, the first time anyone sees the given one
+    private synchronized void clearFor(WordIndex index) {
+        if (index != cachedIndex) {
+            for (Stripe stripe : stripes) {
+                stripe.clear();
+            }
+            cachedIndex = index;
+        }
+    }
+
+    // what's on the screen: the letters that have been guessed, HIDDEN for the ones that haven't, and the spaces
+    private static String revealedPattern(Phrase phrase, int correctlyGuessedLetters) {
+        char[] pattern = new char[phrase.length()];
+        for (int i = 0; i < pattern.length; i++) {
+            Letter letter = phrase.letterAt(i);
+            if (letter == null) {
+                pattern[i] = SPACE;
+            }
+            else {
+                pattern[i] = LetterMask.contains(correctlyGuessedLetters, letter) ? phrase.charAt(i) : HIDDEN;
+            }
+        }
+        return new String(pattern);
+    }
+
+    /** the number of hints that came from the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** the number of hints that had to be worked out */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** the fraction of hints that came from the cache, 0 if there haven't been any */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /** the number of hints currently cached */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /** the most hints that can be cached at once (rounded up to fill the stripes evenly) */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hints: %,d cached of %,d, %,d hits, %,d misses (%.1f%% hit rate)", size(), capacity,
+                             getHits(), getMisses(), getHitRate() * 100);
+    }
+
+    // what a hint depends on, the words it came from, the pattern and wrong letters
+    private static final class Key {
+        private final WordIndex index; // compared by identity, each load of the words builds a new one
+        private final String pattern;
+        private final int incorrectlyGuessedLetters; // LetterMask
+        private final int hash;
+
+        private Key(WordIndex index, String pattern, int incorrectlyGuessedLetters) {
+            this.index = index;
+            this.pattern = pattern;
+            this.incorrectlyGuessedLetters = incorrectlyGuessedLetters;
+            int hash = pattern.hashCode() * 31 + incorrectlyGuessedLetters;
+            this.hash = hash ^ (hash >>> 16); // the stripe is picked from the low bits, so mix the high ones in
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return index == key.index && incorrectlyGuessedLetters == key.incorrectlyGuessedLetters
+                   && pattern.equals(key.pattern);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // one part of the cache, least recently used first. Even reading reorders the map, so every access is locked
+    private static final class Stripe {
+        private final Map<Key, Letter> hints;
+
+        private Stripe(int capacity) {
+            hints = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Letter> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized Letter get(Key key) {
+            return hints.get(key);
+        }
+
+        private synchronized void put(Key key, Letter hint) {
+            hints.put(key, hint);
+        }
+
+        private synchronized int size() {
+            return hints.size();
+        }
+
+        private synchronized void clear() {
+            hints.clear();
+        }
+    }
+}
@@ -1,54 +1,90 @@
 package game;
 
-import ui.UserInteractions;
+import metrics.HangmanMetrics;
 import words.Letter;
+import words.LetterMask;
 import words.Phrase;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * This class keeps track of the game state and implements game logic, e.g. updating state when a user takes a turn,
  * determining when the game is over.
+ *
+ * This is just the game engine, it never talks to the user itself. Whoever is driving the game (e.g. the GameRunner
+ * for the command line, or a bot) gets guesses from somewhere, hands them to applyTurn(), and reads the state back
+ * out. So a game can be paused, inspected, or stepped alongside lots of others on the same thread.
+ * A Game isn't thread safe, only one thread should be applying turns to it at a time.
  */
 public class Game {
 
     private Phrase phraseToGuess; // the phrase that we'll being trying to guess for this game
+    private final PhraseAdversary adversary; // if not null, this changes the phrase after every guess
+    private final int maxWrongGuesses; // the number of wrong guesses before the guessing player loses
+    private final GameListener listener; // told about every turn
+    private final boolean timeTurns; // whether this game's turns are timed for the metrics, only a sample of games are
     private GameStatus gameStatus; // the current status of the game
 
-    private UserInteractions userInteractions; // a way to get input from the user
+    // sets of letters are kept as LetterMasks (one bit per letter), so taking a turn is just a few bit operations
+    private int availableToGuessLetters = LetterMask.ALL;    // letters that haven't been guessed yet, starts as all of them
+    private int correctlyGuessedLetters = LetterMask.NONE;   // guessed letters which were in the phrase
+    private int incorrectlyGuessedLetters = LetterMask.NONE; // guessed letters which were not in the phrase
+    private Set<Phrase> incorrectlyGuessedPhrases = new HashSet<>(); // guessed phrases which were wrong
 
-    // letters that haven't been guessed yet, starts out as a set of all the letters
-    private Set<Letter> availableToGuessLetters = new HashSet<>(Arrays.asList(Letter.values()));
+    // read-only views of the state above, for handing to the UI
+    private final Set<Letter> availableToGuessLettersView = LetterMask.asSet(() -> availableToGuessLetters);
+    private final Set<Letter> correctlyGuessedLettersView = LetterMask.asSet(() -> correctlyGuessedLetters);
+    private final Set<Letter> incorrectlyGuessedLettersView = LetterMask.asSet(() -> incorrectlyGuessedLetters);
+    private final Set<Phrase> incorrectlyGuessedPhrasesView = Collections.unmodifiableSet(incorrectlyGuessedPhrases);
 
-    private Set<Letter> correctlyGuessedLetters = new HashSet<>();   // guessed letters which were in the phrase
-    private Set<Letter> incorrectlyGuessedLetters = new HashSet<>(); // guessed letters which were not in the phrase
-    private Set<Phrase> incorrectlyGuessedPhrases = new HashSet<>(); // guessed phrases which were wrong
+    /** sets up a new game for guessing the given phrase, call applyTurn() with each guess to play it */
+    public Game(Phrase phraseToGuess, int maxWrongGuesses) {
+        this(phraseToGuess, maxWrongGuesses, GameListener.NONE);
+    }
 
-    /** sets up a new game, need to call play() to actually start guessing */
-    public Game(UserInteractions userInteractions) {
-        this.userInteractions = userInteractions;
-        this.gameStatus = GameStatus.STARTING;
-        play();
+    /** the same, telling the given listener about every turn that's applied */
+    public Game(Phrase phraseToGuess, int maxWrongGuesses, GameListener listener) {
+        this(phraseToGuess, null, maxWrongGuesses, listener);
     }
 
-    // keep asking for more guesses until the game has finished with some outcome
-    private void play() {
-        phraseToGuess = userInteractions.getPhraseToGuess();
-        displayGameState();
-        gameStatus = GameStatus.GUESSING;
+    /**
+     * sets up a game where the phrase isn't decided up front: the adversary can change it after every guess, to
+     * whichever phrase that still fits what's been revealed is worst for the guessing player
+     */
+    public Game(PhraseAdversary adversary, int maxWrongGuesses) {
+        this(adversary.initialPhrase(), adversary, maxWrongGuesses, GameListener.NONE);
+    }
 
-        while (!gameStatus.isGameOver()) {
-            gameStatus = updateFromTurnResult(userInteractions.getTurnResult(availableToGuessLetters));
-            displayGameState();
-        }
+    private Game(Phrase phraseToGuess, PhraseAdversary adversary, int maxWrongGuesses, GameListener listener) {
+        this.phraseToGuess = phraseToGuess;
+        this.adversary = adversary;
+        this.maxWrongGuesses = maxWrongGuesses;
+        this.listener = listener;
+        this.gameStatus = GameStatus.STARTING;
+        this.timeTurns = HangmanMetrics.sampleLatency();
+        HangmanMetrics.INSTANCE.gameStarted();
     }
 
-    // display the current game state to the user
-    private void displayGameState() {
-        userInteractions.displayGameState(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
-                                          incorrectlyGuessedPhrases, gameStatus);
+    /**
+     * update the state of the game with the guess from one turn, and return the new status of the game
+     * throws IllegalStateException if the game is already over
+     */
+    public GameStatus applyTurn(TurnResult turnResult) {
+        if (gameStatus.isGameOver()) {
+            throw new IllegalStateException("can't take a turn, the game is already over: " + gameStatus);
+        }
+        long start = timeTurns ? System.nanoTime() : 0;
+        gameStatus = updateFromTurnResult(turnResult);
+        listener.turnApplied(turnResult, gameStatus);
+        if (timeTurns) {
+            HangmanMetrics.INSTANCE.turnLatency().record(System.nanoTime() - start);
+        }
+        if (gameStatus.isGameOver()) {
+            HangmanMetrics.INSTANCE.gameEnded(gameStatus);
+        }
+        return gameStatus;
     }
 
     // update the state of the game based on the turn data we just got from the user
@@ -65,24 +101,31 @@ public class Game {
 
     // update game state based on the given guessed Letter
     private GameStatus updateFromGuessedLetter(Letter guessedLetter) {
-        availableToGuessLetters.remove(guessedLetter); // can't guess this letter anymore
+        int guessedMask = LetterMask.of(guessedLetter);
+        availableToGuessLetters &= ~guessedMask; // can't guess this letter anymore
+        if (adversary != null) {
+            phraseToGuess = adversary.afterLetterGuessed(guessedLetter);
+        }
 
         if (phraseToGuess.contains(guessedLetter)) { // this was a correct guess
-            correctlyGuessedLetters.add(guessedLetter);
+            correctlyGuessedLetters |= guessedMask;
 
             // if all letters in the phrase are now guessed, the game is over - otherwise we need to keep guessing
             return phraseToGuess.allLettersGuessed(correctlyGuessedLetters) ?
                    GameStatus.GUESSED_ALL_LETTERS_CORRECTLY : GameStatus.GUESSING;
         }
         else { // the guessed letter wasn't in the phrase
-            incorrectlyGuessedLetters.add(guessedLetter);
+            incorrectlyGuessedLetters |= guessedMask;
             return incorrectGuessResult();
         }
     }
 
     // update game state based on the given guessed Phrase
     private GameStatus updateFromGuessedPhrase(Phrase guessedPhrase) {
-        if (phraseToGuess.asRawString().equals(guessedPhrase.asRawString())) {
+        if (adversary != null) {
+            phraseToGuess = adversary.afterPhraseGuessed(guessedPhrase);
+        }
+        if (phraseToGuess.sameLettersAs(guessedPhrase)) {
             return GameStatus.GUESSED_PHRASE_CORRECTLY;
         }
         else { // guessed phrase was wrong
@@ -93,7 +136,50 @@ public class Game {
 
     // game is over if we've hit the max number of wrong guesses, otherwise we keep guessing
     private GameStatus incorrectGuessResult() {
-        return incorrectlyGuessedPhrases.size() + incorrectlyGuessedLetters.size() >= userInteractions.getMaxWrongGuesses() ?
-               GameStatus.TOO_MANY_WRONG_GUESSES : GameStatus.GUESSING;
+        return getNumWrongGuesses() >= maxWrongGuesses ? GameStatus.TOO_MANY_WRONG_GUESSES : GameStatus.GUESSING;
+    }
+
+    /** take a copy of the current state of the game, which won't change as more turns are applied */
+    public GameState snapshot() {
+        return new GameState(phraseToGuess, gameStatus, availableToGuessLetters, correctlyGuessedLetters,
+                             incorrectlyGuessedLetters, incorrectlyGuessedPhrases);
+    }
+
+    /** the phrase being guessed. If the game has an adversary, this can change after each turn */
+    public Phrase getPhraseToGuess() {
+        return phraseToGuess;
+    }
+
+    public GameStatus getGameStatus() {
+        return gameStatus;
+    }
+
+    public int getMaxWrongGuesses() {
+        return maxWrongGuesses;
+    }
+
+    /** the total number of wrong guesses so far, letters and phrases */
+    public int getNumWrongGuesses() {
+        return incorrectlyGuessedPhrases.size() + LetterMask.size(incorrectlyGuessedLetters);
+    }
+
+    /** letters that haven't been guessed yet, as a read-only view that stays up to date as turns are applied */
+    public Set<Letter> getAvailableToGuessLetters() {
+        return availableToGuessLettersView;
+    }
+
+    /** guessed letters which were in the phrase, as a read-only view that stays up to date as turns are applied */
+    public Set<Letter> getCorrectlyGuessedLetters() {
+        return correctlyGuessedLettersView;
+    }
+
+    /** guessed letters which were not in the phrase, as a read-only view that stays up to date as turns are applied */
+    public Set<Letter> getIncorrectlyGuessedLetters() {
+        return incorrectlyGuessedLettersView;
+    }
+
+    /** guessed phrases which were wrong, as a read-only view that stays up to date as turns are applied */
+    public Set<Phrase> getIncorrectlyGuessedPhrases() {
+        return incorrectlyGuessedPhrasesView;
     }
 }
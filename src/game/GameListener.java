@@ -0,0 +1,22 @@
+package game;
+
+/**
+ * Gets told about each turn taken in a Game, e.g. to record it somewhere. It's called on whichever thread applied the
+ * turn, right after the turn has been applied, so it should be quick and shouldn't block.
+ */
+public interface GameListener {
+
+    /** a listener that does nothing, for games nobody needs to hear about */
+    GameListener NONE = (turnResult, gameStatus) -> { };
+
+    /** the given turn was just taken, leaving the game with the given status */
+    void turnApplied(TurnResult turnResult, GameStatus gameStatus);
+
+    /** a listener that tells this one about each turn, then the given one */
+    default GameListener andThen(GameListener next) {
+        return (turnResult, gameStatus) -> {
+            turnApplied(turnResult, gameStatus);
+            next.turnApplied(turnResult, gameStatus);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package game;
+
+import analytics.GameAnalytics;
+import journal.GameJournal;
+import ui.UserInteractions;
+import words.Phrase;
+
+/**
+ * Drives a Game with a UserInteractions, for when a person is playing. This is the loop the Game constructor used to
+ * run itself: get the phrase, then keep asking for guesses and showing the state until the game is over. All of the
+ * rules live in the Game, this just moves data between it and the UI.
+ */
+public class GameRunner {
+
+    private GameRunner() {
+    }
+
+    /** play one whole game using the given UI, and return the finished Game */
+    public static Game play(UserInteractions userInteractions) {
+        return play(userInteractions, null);
+    }
+
+    /** the same, recording the game in the given journal, if it's not null */
+    public static Game play(UserInteractions userInteractions, GameJournal journal) {
+        return play(userInteractions, journal, null);
+    }
+
+    /** the same, also counting the game in the given analytics once it's over, if they're not null */
+    public static Game play(UserInteractions userInteractions, GameJournal journal, GameAnalytics analytics) {
+        Phrase phraseToGuess = userInteractions.getPhraseToGuess();
+        int maxWrongGuesses = userInteractions.getMaxWrongGuesses();
+        GameListener listener = journal == null ? GameListener.NONE
+                                                : journal.gameStarted(phraseToGuess, maxWrongGuesses);
+        if (analytics != null) {
+            listener = listener.andThen(analytics.gameStarted(phraseToGuess, maxWrongGuesses));
+        }
+        return playUntilOver(new Game(phraseToGuess, maxWrongGuesses, listener), userInteractions);
+    }
+
+    /**
+     * play one whole game using the given UI, where the adversary picks the phrase as the game goes instead of the
+     * phrase setter. These aren't journaled, since the journal only knows how to replay a phrase that doesn't change,
+     * and they aren't counted in any analytics either, since the phrase isn't one anybody picked
+     */
+    public static Game playAgainst(UserInteractions userInteractions, PhraseAdversary adversary) {
+        return playUntilOver(new Game(adversary, userInteractions.getMaxWrongGuesses()), userInteractions);
+    }
+
+    private static Game playUntilOver(Game game, UserInteractions userInteractions) {
+        displayGameState(game, userInteractions);
+
+        // keep asking for more guesses until the game has finished with some outcome
+        while (!game.getGameStatus().isGameOver()) {
+            game.applyTurn(userInteractions.getTurnResult(game.getAvailableToGuessLetters()));
+            displayGameState(game, userInteractions);
+        }
+        return game;
+    }
+
+    // display the current game state to the user
+    private static void displayGameState(Game game, UserInteractions userInteractions) {
+        userInteractions.displayGameState(game.getPhraseToGuess(), game.getCorrectlyGuessedLetters(),
+                                          game.getIncorrectlyGuessedLetters(), game.getIncorrectlyGuessedPhrases(),
+                                          game.getGameStatus());
+    }
+}
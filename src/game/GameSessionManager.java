@@ -0,0 +1,185 @@
+package game;
+
+import journal.GameJournal;
+import words.Phrase;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps lots of live games at once, each one under its own session id, so any kind of front end (web, socket, chat
+ * bot...) can create games, take turns, and read the state back without owning the Game objects itself. Turns come in
+ * as separate calls, possibly from different threads, rather than from a loop that blocks waiting for the player.
+ *
+ * There's no global lock. The sessions are in a ConcurrentHashMap, which lets any number of threads look sessions up
+ * at once, and each Game is locked on its own while a turn is applied or the state is read, so two threads only wait
+ * for each other when they're touching the same game.
+ *
+ * Sessions nobody has touched for the idle timeout are evicted by a background thread, and there's a cap on how many
+ * can be live at once, so abandoned games can't use up all the memory. Call close() to stop the background thread.
+ */
+public class GameSessionManager implements AutoCloseable {
+
+    // a game and when it was last used
+    private static class Session {
+        private final Game game;
+        private volatile long lastAccessNanos;
+
+        private Session(Game game) {
+            this.game = game;
+            this.lastAccessNanos = System.nanoTime();
+        }
+
+        // update the last access time, and return the session so this can be chained
+        private Session touch() {
+            lastAccessNanos = System.nanoTime();
+            return this;
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger liveSessions = new AtomicInteger(); // kept separately, since the map's size() isn't cheap
+    private final long idleTimeoutNanos;
+    private final int maxSessions;
+    private final ScheduledExecutorService evictor;
+    private final GameJournal journal; // records every game, or null if they aren't being recorded
+
+    /** keep at most maxSessions games, and throw away any that aren't used for the given idle timeout */
+    public GameSessionManager(Duration idleTimeout, int maxSessions) {
+        this(idleTimeout, maxSessions, null);
+    }
+
+    /** the same, recording every game in the given journal (if it's not null), which the caller closes */
+    public GameSessionManager(Duration idleTimeout, int maxSessions, GameJournal journal) {
+        this.journal = journal;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxSessions = maxSessions;
+
+        // check for idle sessions a couple of times per timeout, so they don't hang around much longer than it
+        long evictionPeriodMillis = Math.max(idleTimeout.toMillis() / 2, 1);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(this::evictIdleSessions, evictionPeriodMillis, evictionPeriodMillis,
+                                    TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * start a new game for the given phrase, and return the id of its session
+     * throws IllegalStateException if there are already the maximum number of live sessions
+     */
+    public String createGame(Phrase phraseToGuess, int maxWrongGuesses) {
+        if (!reserveSession()) {
+            evictIdleSessions(); // there might be some that are idle, but haven't been cleaned up yet
+            if (!reserveSession()) {
+                throw new IllegalStateException(String.format("can't start a game, there are already %d live sessions",
+                                                              maxSessions));
+            }
+        }
+
+        Session session;
+        try {
+            GameListener listener = journal == null ? GameListener.NONE
+                                                    : journal.gameStarted(phraseToGuess, maxWrongGuesses);
+            session = new Session(new Game(phraseToGuess, maxWrongGuesses, listener));
+        }
+        catch (RuntimeException | Error e) { // e.g. the journal couldn't start a new segment
+            liveSessions.decrementAndGet(); // give the reservation back, or failures would use up every session
+            throw e;
+        }
+        String sessionId;
+        do {
+            sessionId = newSessionId();
+        } while (sessions.putIfAbsent(sessionId, session) != null); // basically never happens with 128 random bits
+        return sessionId;
+    }
+
+    /**
+     * take a turn in the session's game, and return the state of the game afterwards
+     * returns empty if there's no such session (e.g. it was evicted), or throws IllegalStateException if the game is over
+     */
+    public Optional<GameState> applyTurn(String sessionId, TurnResult turnResult) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session.touch()) {
+            session.game.applyTurn(turnResult);
+            return Optional.of(session.game.snapshot());
+        }
+    }
+
+    /** the current state of the session's game, or empty if there's no such session */
+    public Optional<GameState> getState(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        synchronized (session.touch()) {
+            return Optional.of(session.game.snapshot());
+        }
+    }
+
+    /** forget about the session's game, e.g. once the players have seen how it ended. Returns false if it wasn't there */
+    public boolean endGame(String sessionId) {
+        if (sessions.remove(sessionId) == null) {
+            return false;
+        }
+        liveSessions.decrementAndGet();
+        return true;
+    }
+
+    /** the number of live sessions */
+    public int size() {
+        return liveSessions.get();
+    }
+
+    /** throw away every session that's been idle longer than the timeout, and return how many there were */
+    public int evictIdleSessions() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            // only count it if we're the one that removed it, endGame() might have got there first
+            if (now - entry.getValue().lastAccessNanos > idleTimeoutNanos &&
+                sessions.remove(entry.getKey(), entry.getValue())) {
+                liveSessions.decrementAndGet();
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /** stop checking for idle sessions in the background */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+    }
+
+    // take one of the free session slots if there are any left
+    private boolean reserveSession() {
+        while (true) {
+            int live = liveSessions.get();
+            if (live >= maxSessions) {
+                return false;
+            }
+            if (liveSessions.compareAndSet(live, live + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // 128 random bits as hex. Unique, but not meant to be secret, front ends should check who's playing themselves
+    private static String newSessionId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%016x", random.nextLong(), random.nextLong());
+    }
+}
@@ -0,0 +1,67 @@
+package game;
+
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A copy of the state of a Game at one point in time, from Game.snapshot(). Unlike the Game itself this never changes,
+ * so it's safe to hand to another thread, or keep around after more turns have been taken.
+ */
+public class GameState {
+
+    private final Phrase phraseToGuess;
+    private final GameStatus gameStatus;
+    private final int availableToGuessLetters;   // LetterMask
+    private final int correctlyGuessedLetters;   // LetterMask
+    private final int incorrectlyGuessedLetters; // LetterMask
+    private final Set<Phrase> incorrectlyGuessedPhrases;
+
+    GameState(Phrase phraseToGuess, GameStatus gameStatus, int availableToGuessLetters, int correctlyGuessedLetters,
+              int incorrectlyGuessedLetters, Set<Phrase> incorrectlyGuessedPhrases) {
+        this.phraseToGuess = phraseToGuess;
+        this.gameStatus = gameStatus;
+        this.availableToGuessLetters = availableToGuessLetters;
+        this.correctlyGuessedLetters = correctlyGuessedLetters;
+        this.incorrectlyGuessedLetters = incorrectlyGuessedLetters;
+        this.incorrectlyGuessedPhrases = Collections.unmodifiableSet(new LinkedHashSet<>(incorrectlyGuessedPhrases));
+    }
+
+    public Phrase getPhraseToGuess() {
+        return phraseToGuess;
+    }
+
+    public GameStatus getGameStatus() {
+        return gameStatus;
+    }
+
+    /** the total number of wrong guesses, letters and phrases */
+    public int getNumWrongGuesses() {
+        return incorrectlyGuessedPhrases.size() + LetterMask.size(incorrectlyGuessedLetters);
+    }
+
+    public Set<Letter> getAvailableToGuessLetters() {
+        return LetterMask.asSet(() -> availableToGuessLetters);
+    }
+
+    public Set<Letter> getCorrectlyGuessedLetters() {
+        return LetterMask.asSet(() -> correctlyGuessedLetters);
+    }
+
+    public Set<Letter> getIncorrectlyGuessedLetters() {
+        return LetterMask.asSet(() -> incorrectlyGuessedLetters);
+    }
+
+    public Set<Phrase> getIncorrectlyGuessedPhrases() {
+        return incorrectlyGuessedPhrases;
+    }
+
+    /** the phrase with any letters that haven't been guessed yet replaced by the given hidden string */
+    public String getPhraseWithHiding(String hiddenString) {
+        return phraseToGuess.asStringWithHiding(getCorrectlyGuessedLetters(), gameStatus, hiddenString);
+    }
+}
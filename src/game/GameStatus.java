@@ -22,6 +22,11 @@ public enum GameStatus {
         return this.isOver;
     }
 
+    /** did the game end with the guessing player winning? */
+    public boolean isGuesserWin() {
+        return this == GUESSED_ALL_LETTERS_CORRECTLY || this == GUESSED_PHRASE_CORRECTLY;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,22 @@
+package game;
+
+import words.Letter;
+import words.Phrase;
+
+/**
+ * Picks the phrase as the game goes, rather than it being fixed up front, for a Game that wants to make the guessing
+ * player's life as hard as possible. After every guess it can swap to a different phrase, as long as the new one fits
+ * everything that's been shown to the guesser so far: the same length and spaces, the correctly guessed letters in the
+ * same places, and none of the wrongly guessed letters.
+ */
+public interface PhraseAdversary {
+
+    /** the phrase to start with. Nothing of it is revealed yet, so all that matters is its length and spaces */
+    Phrase initialPhrase();
+
+    /** the given letter was just guessed, return the phrase to carry on with */
+    Phrase afterLetterGuessed(Letter guessedLetter);
+
+    /** the given phrase was just guessed, return the phrase to carry on with - the guessed one only if it has to be */
+    Phrase afterPhraseGuessed(Phrase guessedPhrase);
+}
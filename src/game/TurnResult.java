@@ -3,6 +3,8 @@ package game;
 import words.Letter;
 import words.Phrase;
 
+import java.util.Arrays;
+
 /**
  * A class representing the data we got back from the user about what they guessed this turn.
  * This is can be either a single letter or a phrase
@@ -23,9 +25,14 @@ public class TurnResult {
         this.guessedPhrase = guessedPhrase;
     }
 
-    /** construct a TurnResult from the given guessed Letter */
+    // TurnResults are immutable, so there only ever needs to be one for guessing each letter
+    private static final TurnResult[] LETTER_GUESSES = Arrays.stream(Letter.values())
+                                                            .map(letter -> new TurnResult(TurnType.GUESSED_LETTER, letter, null))
+                                                            .toArray(TurnResult[]::new);
+
+    /** get the TurnResult for guessing the given Letter */
     public static TurnResult guessedLetter(Letter guessedLetter) {
-        return new TurnResult(TurnType.GUESSED_LETTER, guessedLetter, null);
+        return LETTER_GUESSES[guessedLetter.ordinal()];
     }
 
     /** construct a TurnResult from the given guessed Phrase */
@@ -0,0 +1,206 @@
+package journal;
+
+import game.GameListener;
+import game.GameStatus;
+import game.TurnResult;
+import words.Phrase;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An append-only record of every game played: the phrase each game starts with, then every turn taken and the status
+ * it left the game in. Events are written in a compact binary form straight into a memory mapped file, so recording
+ * one is a few puts into memory rather than a system call, and the OS writes the pages out to disk in the background.
+ * Anything written survives the process crashing, though not the whole machine going down (use force() for that).
+ *
+ * The journal is split into fixed size segment files in one directory, numbered in order. When an event won't fit in
+ * the current segment, a new one is started, so no one file grows without limit and old segments can be archived or
+ * deleted while the server is still running. Opening a journal always starts a new segment after any that are there.
+ *
+ * Each event is a record of [int length][byte type][long game id][details], where the length covers everything after
+ * it. The length is written last, and the rest of a segment is zeroes, so a reader stops at the first zero length
+ * whether the segment was finished cleanly or the writer died part way through an event. See JournalReplay.
+ *
+ * A game id is the number of the first segment the journal was opened with in its top 32 bits, and a count of the
+ * games started since then below that, so ids are unique across the whole journal however often it's reopened, and
+ * JournalReplay can tell a game left over from before a restart by its id.
+ *
+ * Any number of threads can write at once. Appending is synchronized, but it only copies a few bytes, so it's held for
+ * a tiny fraction of the time it takes to play a turn.
+ */
+public class GameJournal implements Closeable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    // event types
+    static final byte GAME_STARTED = 1;   // [long start time millis][byte max wrong guesses][int length][phrase chars]
+    static final byte LETTER_GUESSED = 2; // [byte letter ordinal][byte game status ordinal]
+    static final byte PHRASE_GUESSED = 3; // [byte game status ordinal][int length][phrase chars]
+
+    static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Long.BYTES; // length, type, game id
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final AtomicLong nextGameId; // the first segment this opened in the top 32 bits, then a count of games
+
+    // the segment being written, guarded by this
+    private int segmentNumber;
+    private MappedByteBuffer segment;
+    private boolean closed;
+
+    /** start a new journal segment in the given directory, with segments of the default size */
+    public GameJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /** start a new journal segment in the given directory, rolling over to a new one every segmentBytes */
+    public GameJournal(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes > Integer.MAX_VALUE) { // a single mapping can't be any bigger
+            throw new IllegalArgumentException("journal segments can be at most 2GB: " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        List<Path> existing = segments(directory);
+        this.segmentNumber = existing.isEmpty() ? 0 : segmentNumber(existing.get(existing.size() - 1));
+        this.segment = mapNextSegment();
+        this.nextGameId = new AtomicLong(((long) segmentNumber << 32) + 1);
+    }
+
+    /** the number of the first segment the journal was open on when the game with the given id started */
+    static int openedInSegment(long gameId) {
+        return (int) (gameId >>> 32);
+    }
+
+    /**
+     * record the start of a game for the given phrase, and return a listener to give that Game, which records each of
+     * its turns. Games are told apart in the journal by an id, which no other game in the journal's directory has, as
+     * long as no one opening of it starts more than 4 billion games
+     */
+    public GameListener gameStarted(Phrase phraseToGuess, int maxWrongGuesses) {
+        long gameId = nextGameId.getAndIncrement();
+        String phrase = phraseToGuess.asRawString();
+        synchronized (this) {
+            int start = startEvent(GAME_STARTED, gameId, Long.BYTES + Byte.BYTES + Integer.BYTES + phrase.length());
+            segment.putLong(System.currentTimeMillis());
+            segment.put((byte) maxWrongGuesses);
+            putPhrase(phrase);
+            finishEvent(start);
+        }
+        return (turnResult, gameStatus) -> turnApplied(gameId, turnResult, gameStatus);
+    }
+
+    // record one turn of the game with the given id
+    private void turnApplied(long gameId, TurnResult turnResult, GameStatus gameStatus) {
+        if (turnResult.getType() == TurnResult.TurnType.GUESSED_LETTER) {
+            synchronized (this) {
+                int start = startEvent(LETTER_GUESSED, gameId, Byte.BYTES + Byte.BYTES);
+                segment.put((byte) turnResult.getGuessedLetter().ordinal());
+                segment.put((byte) gameStatus.ordinal());
+                finishEvent(start);
+            }
+        }
+        else {
+            String phrase = turnResult.getGuessedPhrase().asRawString();
+            synchronized (this) {
+                int start = startEvent(PHRASE_GUESSED, gameId, Byte.BYTES + Integer.BYTES + phrase.length());
+                segment.put((byte) gameStatus.ordinal());
+                putPhrase(phrase);
+                finishEvent(start);
+            }
+        }
+    }
+
+    // make room for an event with the given number of bytes of details, and write everything but its length.
+    // Returns where the event starts, for finishEvent()
+    private int startEvent(byte type, long gameId, int detailBytes) {
+        if (closed) {
+            throw new IllegalStateException("the journal is closed");
+        }
+        int eventBytes = HEADER_BYTES + detailBytes;
+        if (segment.remaining() < eventBytes) {
+            if (eventBytes > segmentBytes) {
+                throw new IllegalArgumentException(String.format("a %d byte event won't fit in a %d byte segment",
+                                                                  eventBytes, segmentBytes));
+            }
+            try {
+                segment = mapNextSegment();
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("couldn't start a new journal segment", e);
+            }
+        }
+        int start = segment.position();
+        segment.position(start + Integer.BYTES); // the length goes here once everything else is written
+        segment.put(type);
+        segment.putLong(gameId);
+        return start;
+    }
+
+    // write the length of the event that starts at the given position, which is what makes it visible to readers
+    private void finishEvent(int start) {
+        segment.putInt(start, segment.position() - start - Integer.BYTES);
+    }
+
+    // phrases are only ever upper case letters and spaces, so each char fits in a byte
+    private void putPhrase(String phrase) {
+        segment.putInt(phrase.length());
+        for (int i = 0; i < phrase.length(); i++) {
+            segment.put((byte) phrase.charAt(i));
+        }
+    }
+
+    // create the next segment file and map the whole thing. A new file is all zeroes, which readers take as the end
+    private MappedByteBuffer mapNextSegment() throws IOException {
+        segmentNumber++;
+        Path path = directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes); // stays mapped once it's closed
+        }
+    }
+
+    /** wait for everything written so far to the current segment to reach the disk */
+    public synchronized void force() {
+        segment.force();
+    }
+
+    /** write out what's left, and stop taking events */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            segment.force();
+        }
+    }
+
+    /** every segment file in the given directory, in the order they were written */
+    public static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(GameJournal::isSegment)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
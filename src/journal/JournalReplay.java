@@ -0,0 +1,259 @@
+package journal;
+
+import analytics.GameAnalytics;
+import game.Game;
+import game.GameListener;
+import game.GameStatus;
+import game.TurnResult;
+import words.Letter;
+import words.Phrase;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays the games in a GameJournal through the real Game engine, to check what happened in production: how each
+ * game turned out, and whether the engine still agrees with the status that was recorded after every turn. A turn
+ * that comes out differently is a bug (or a rules change) worth looking at, and the game id, segment, and position
+ * of the event are reported so the game can be pulled out and stepped through.
+ *
+ * Segments are read sequentially from a memory mapping, with the bytes decoded in place, so replay runs at millions of
+ * events per second. Games can carry on from one segment into the next, so give all of a journal's segments at once.
+ * Game ids say which opening of the journal a game was started in, so once a game from a later one starts, any games
+ * still going from before were cut off by a restart, and are counted as abandoned. Game ids are never reused, so one
+ * that starts twice is reported as a mismatch.
+ *
+ * The replayed games can also be counted in GameAnalytics, to get the statistics for tuning word difficulty out of
+ * games that were played before anything was counting them.
+ *
+ * Run from the command line: java journal.JournalReplay [--analytics file.csv] <journal directory or segment files...>
+ */
+public class JournalReplay {
+    private static final GameStatus[] STATUSES = GameStatus.values();
+    private static final Letter[] LETTERS = Letter.values();
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    private final GameAnalytics analytics; // counts every replayed game that finishes, or null
+    private final Map<Long, Game> liveGames = new HashMap<>(); // games that have started but aren't over yet
+    private final long[] gamesEndedWithStatus = new long[STATUSES.length];
+    private final List<String> mismatches = new ArrayList<>(); // descriptions of the first few mismatches
+    private int openedInSegment; // which opening of the journal the games being replayed are from (see GameJournal)
+    private long events;
+    private long gamesStarted;
+    private long gamesAbandoned; // games that never finished because the server was restarted part way through
+    private long turnsForUnknownGames; // turns for games that started in a segment we weren't given
+    private long mismatchCount;
+    private char[] phraseChars = new char[64]; // scratch space for decoding phrases
+
+    public JournalReplay() {
+        this(null);
+    }
+
+    /** a replay that counts every game that finishes in the given analytics, if they're not null */
+    public JournalReplay(GameAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    /** replay every event in the given segments, in order */
+    public void replay(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            replaySegment(segment);
+        }
+    }
+
+    // read through one segment until we hit the zeroes after the last event
+    private void replaySegment(Path segment) throws IOException {
+        MappedByteBuffer events;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            events = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        while (events.remaining() >= GameJournal.HEADER_BYTES) {
+            int start = events.position();
+            int length = events.getInt();
+            if (length == 0) {
+                break; // nothing has been written from here on
+            }
+            if (length < Byte.BYTES + Long.BYTES || length > events.remaining()) {
+                throw new IllegalArgumentException(String.format("an event at %s:%d runs past the end of the segment",
+                                                                 segment, start));
+            }
+            byte type = events.get();
+            long gameId = events.getLong();
+            replayEvent(type, gameId, events, segment, start);
+            events.position(start + Integer.BYTES + length); // skip anything we didn't read, e.g. a newer field
+            this.events++;
+        }
+    }
+
+    private void replayEvent(byte type, long gameId, MappedByteBuffer event, Path segment, int position) {
+        switch (type) {
+            case GameJournal.GAME_STARTED: {
+                event.getLong(); // start time, which replaying doesn't need
+                int maxWrongGuesses = event.get();
+                Phrase phrase = getPhrase(event);
+                if (GameJournal.openedInSegment(gameId) > openedInSegment) {
+                    // the journal was reopened, so any games still going were cut off when it was last closed
+                    gamesAbandoned += liveGames.size();
+                    liveGames.clear();
+                    openedInSegment = GameJournal.openedInSegment(gameId);
+                }
+                GameListener listener = analytics == null ? GameListener.NONE
+                                                          : analytics.gameStarted(phrase, maxWrongGuesses);
+                if (liveGames.put(gameId, new Game(phrase, maxWrongGuesses, listener)) != null) {
+                    mismatch(String.format("game %d at %s:%d started again while it was still going", gameId, segment,
+                                           position));
+                }
+                gamesStarted++;
+                break;
+            }
+            case GameJournal.LETTER_GUESSED: {
+                TurnResult turn = TurnResult.guessedLetter(LETTERS[event.get()]);
+                replayTurn(gameId, turn, STATUSES[event.get()], segment, position);
+                break;
+            }
+            case GameJournal.PHRASE_GUESSED: {
+                GameStatus recordedStatus = STATUSES[event.get()];
+                replayTurn(gameId, TurnResult.guessedPhrase(getPhrase(event)), recordedStatus, segment, position);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException(String.format("unknown event type %d at %s:%d", type, segment,
+                                                                 position));
+        }
+    }
+
+    // apply the turn to the game, and check it ends up how it did the first time
+    private void replayTurn(long gameId, TurnResult turn, GameStatus recordedStatus, Path segment, int position) {
+        Game game = liveGames.get(gameId);
+        if (game == null) {
+            turnsForUnknownGames++;
+            return;
+        }
+
+        GameStatus status = game.applyTurn(turn);
+        if (status != recordedStatus) {
+            mismatch(String.format("game %d at %s:%d was %s when it was played, but %s when replayed", gameId,
+                                   segment, position, recordedStatus, status));
+        }
+        if (status.isGameOver()) {
+            liveGames.remove(gameId);
+            gamesEndedWithStatus[status.ordinal()]++;
+        }
+    }
+
+    private void mismatch(String description) {
+        mismatchCount++;
+        if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+            mismatches.add(description);
+        }
+    }
+
+    // decode a phrase's length and chars
+    private Phrase getPhrase(MappedByteBuffer event) {
+        int length = event.getInt();
+        if (phraseChars.length < length) {
+            phraseChars = new char[length];
+        }
+        for (int i = 0; i < length; i++) {
+            phraseChars[i] = (char) event.get();
+        }
+        return Phrase.fromString(CharBuffer.wrap(phraseChars, 0, length));
+    }
+
+    /** the number of events read */
+    public long getEvents() {
+        return events;
+    }
+
+    /** the number of games that started */
+    public long getGamesStarted() {
+        return gamesStarted;
+    }
+
+    /** the number of games that finished with the given status */
+    public long getGamesEndedWithStatus(GameStatus status) {
+        return gamesEndedWithStatus[status.ordinal()];
+    }
+
+    /** the number of games that were left unfinished by the journal being reopened, e.g. a server restart */
+    public long getGamesAbandoned() {
+        return gamesAbandoned;
+    }
+
+    /** the number of games from the last opening of the journal that were still going at the end of it */
+    public int getGamesInProgress() {
+        return liveGames.size();
+    }
+
+    /**
+     * the number of turns where the replayed game didn't end up with the recorded status, plus the number of times a
+     * game id was started again before its game was over
+     */
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        Path analyticsFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--analytics") && i + 1 < args.length) {
+                analyticsFile = Paths.get(args[++i]);
+                continue;
+            }
+            Path path = Paths.get(args[i]);
+            if (Files.isDirectory(path)) {
+                segments.addAll(GameJournal.segments(path));
+            }
+            else {
+                segments.add(path);
+            }
+        }
+        if (segments.isEmpty()) {
+            System.out.println("usage: java journal.JournalReplay [--analytics file.csv] "
+                               + "<journal directory or segment files...>");
+            return;
+        }
+
+        GameAnalytics analytics = analyticsFile == null ? null : new GameAnalytics();
+        JournalReplay replay = new JournalReplay(analytics);
+        long start = System.nanoTime();
+        replay.replay(segments);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.println(String.format("replayed %,d events from %d segments in %d ms (%,.0f events/sec)",
+                                         replay.getEvents(), segments.size(), elapsedNanos / 1_000_000,
+                                         replay.getEvents() / (elapsedNanos / 1e9)));
+        System.out.println(String.format("%,d games started", replay.getGamesStarted()));
+        for (GameStatus status : STATUSES) {
+            if (status.isGameOver()) {
+                System.out.println(String.format("  %,d ended %s", replay.getGamesEndedWithStatus(status), status));
+            }
+        }
+        System.out.println(String.format("  %,d left unfinished by a restart, %,d still in progress",
+                                         replay.getGamesAbandoned(),
+                                         replay.getGamesInProgress()));
+        if (replay.turnsForUnknownGames > 0) {
+            System.out.println(String.format("%,d turns skipped for games that started in an earlier segment",
+                                             replay.turnsForUnknownGames));
+        }
+        System.out.println(String.format("%,d turns or games came out differently when replayed",
+                                         replay.getMismatchCount()));
+        replay.mismatches.forEach(mismatch -> System.out.println("  " + mismatch));
+        if (analytics != null) {
+            analytics.writeCsv(analyticsFile);
+            System.out.println(analytics + ", written to " + analyticsFile);
+        }
+    }
+}
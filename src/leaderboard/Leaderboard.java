@@ -0,0 +1,414 @@
+package leaderboard;
+
+import game.Game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Every player's results, ranked as games finish, for any number of game threads to update and read at once.
+ *
+ * There's no lock over the whole board. Players are kept in a ConcurrentHashMap, and each update is a compute() on
+ * the player's entry, which only locks that entry, so games finishing for different players don't wait on each other.
+ * The ranking is a ConcurrentSkipListMap in PlayerRecord.RANKING order, so the top k is just the first k entries.
+ * Working out one player's rank by walking the list would take as long as there are players ahead of them, so there's
+ * also a Fenwick tree (a binary indexed tree) counting the players with each number of wins, which gives the number of
+ * players with more wins than anyone in a couple of dozen reads. Players with the same number of wins share a rank.
+ *
+ * Readers never block, and always see each player's latest record or the one before it, but the ranking isn't a
+ * snapshot of one moment: a player who's moving up is briefly missing from it, between their old record coming out
+ * and the new one going in.
+ *
+ * A leaderboard from open() is kept in a directory, so it survives restarts: see LeaderboardFiles for how.
+ */
+public class Leaderboard implements Closeable {
+    /** the longest a player's name can be */
+    public static final int MAX_NAME_LENGTH = 32;
+
+    // the Fenwick tree only counts up to this many wins, above that the ranking is walked instead. Hardly anyone gets
+    // there, and it keeps the tree to a fixed 512KB
+    private static final int MAX_COUNTED_WINS = 1 << 16;
+
+    private final Map<String, PlayerRecord> players;
+    private final ConcurrentSkipListMap<PlayerRecord, Boolean> ranking;
+    private final WinCounts winCounts;
+    private final LeaderboardFiles files; // where updates are saved, or null if this is only kept in memory
+    private ScheduledExecutorService snapshots; // takes a snapshot every so often, or null if it isn't
+
+    /** an empty leaderboard, only kept in memory */
+    public Leaderboard() {
+        this(new PlayerRecord[0], null);
+    }
+
+    // a leaderboard of the given records, which must be strictly in RANKING order, as LeaderboardFiles.load() checks a
+    // snapshot is. If a player's in there more than once, their record with the most games wins, since a player's
+    // record only ever grows
+    private Leaderboard(PlayerRecord[] records, LeaderboardFiles files) {
+        this.files = files;
+        // room for everyone loaded without growing
+        this.players = new ConcurrentHashMap<>(Math.max(16, records.length + records.length / 3));
+        for (PlayerRecord record : records) {
+            players.merge(record.getName(), record, Leaderboard::later);
+        }
+        if (players.size() < records.length) { // picking out the records that won keeps them in order
+            records = Arrays.stream(records)
+                            .filter(record -> players.get(record.getName()) == record)
+                            .toArray(PlayerRecord[]::new);
+        }
+        // a ConcurrentSkipListMap built from a SortedMap links its levels up in one pass, rather than searching for
+        // where each record goes, which takes a few tens of ms for a million players instead of about a second
+        this.ranking = new ConcurrentSkipListMap<>(new RankedRecords(records, 0, records.length));
+        this.winCounts = new WinCounts(records);
+    }
+
+    /**
+     * load the leaderboard kept in the given directory (starting a new one if there isn't one there yet), save every
+     * update to it from now on, and take a new snapshot every snapshotPeriod (if it's positive) on a daemon thread
+     */
+    public static Leaderboard open(Path directory, Duration snapshotPeriod) throws IOException {
+        LeaderboardFiles files = new LeaderboardFiles(directory);
+        LeaderboardFiles.Contents contents = files.load();
+        Leaderboard leaderboard = new Leaderboard(contents.snapshot, files);
+        contents.updates.forEach(leaderboard::restore);
+
+        files.startUpdates();
+        if (!snapshotPeriod.isZero() && !snapshotPeriod.isNegative()) {
+            leaderboard.startSnapshots(snapshotPeriod);
+        }
+        return leaderboard;
+    }
+
+    /**
+     * record the given player finishing a game as the guesser, and return their new record
+     * throws IllegalArgumentException if the name isn't valid (see isValidName())
+     */
+    public PlayerRecord record(String player, boolean won, int wrongGuesses) {
+        if (!isValidName(player)) {
+            throw new IllegalArgumentException("not a valid player name: " + player);
+        }
+        PlayerRecord record = update(player, current -> current.afterGame(won, wrongGuesses));
+        if (files != null) {
+            try {
+                files.append(record);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return record;
+    }
+
+    /**
+     * record the given player finishing the given game as the guesser
+     * throws IllegalArgumentException if the game isn't over yet, or the name isn't valid
+     */
+    public PlayerRecord record(String player, Game game) {
+        if (!game.getGameStatus().isGameOver()) {
+            throw new IllegalArgumentException("the game isn't over yet: " + game.getGameStatus());
+        }
+        return record(player, game.getGameStatus().isGuesserWin(), game.getNumWrongGuesses());
+    }
+
+    // put back a record loaded from an update file, unless the player's already got a later one
+    private void restore(PlayerRecord record) {
+        update(record.getName(), current -> later(current, record));
+    }
+
+    // replace the player's record with whatever the given function makes from it (a new player's starts empty), and
+    // move them in the ranking to match. Returns the new record
+    private PlayerRecord update(String player, UnaryOperator<PlayerRecord> change) {
+        return players.compute(player, (name, current) -> {
+            PlayerRecord old = current == null ? PlayerRecord.newPlayer(name) : current;
+            PlayerRecord record = change.apply(old);
+            if (record != old) {
+                if (current != null) {
+                    ranking.remove(current);
+                    winCounts.add(current.getWins(), -1);
+                }
+                ranking.put(record, Boolean.TRUE);
+                winCounts.add(record.getWins(), 1);
+            }
+            return record;
+        });
+    }
+
+    // whichever of two records of the same player is from later on, i.e. has more games in it
+    private static PlayerRecord later(PlayerRecord a, PlayerRecord b) {
+        return b.getGames() > a.getGames() ? b : a;
+    }
+
+    /** names have to be 1 to MAX_NAME_LENGTH characters, and can't start or end with a space */
+    public static boolean isValidName(String name) {
+        return name != null && !name.isEmpty() && name.length() <= MAX_NAME_LENGTH && name.equals(name.trim());
+    }
+
+    /** the given player's record, or empty if they haven't finished a game */
+    public Optional<PlayerRecord> get(String player) {
+        return Optional.ofNullable(players.get(player));
+    }
+
+    /**
+     * the given player's place on the leaderboard, where 1 is the top, or empty if they haven't finished a game.
+     * Players with the same number of wins share a place, after everyone with more wins
+     */
+    public OptionalInt rank(String player) {
+        PlayerRecord record = players.get(player);
+        if (record == null) {
+            return OptionalInt.empty();
+        }
+        int wins = record.getWins();
+        if (wins < MAX_COUNTED_WINS) {
+            return OptionalInt.of(1 + winCounts.countMoreThan(wins));
+        }
+        // only the few players up past the counts can be ahead of this one, and they're right at the start
+        int ahead = 0;
+        for (PlayerRecord other : ranking.keySet()) {
+            if (other.getWins() <= wins) {
+                break;
+            }
+            ahead++;
+        }
+        return OptionalInt.of(1 + ahead);
+    }
+
+    /** the top k players, best first */
+    public List<PlayerRecord> top(int k) {
+        return ranking.keySet().stream()
+                      .limit(k)
+                      .collect(Collectors.toList());
+    }
+
+    /** the number of players who've finished a game */
+    public int size() {
+        return players.size();
+    }
+
+    /**
+     * save everyone's records as a new snapshot, so the updates up to now don't have to be replayed next time it's
+     * loaded. Does nothing for a leaderboard that's only in memory
+     */
+    public void snapshot() throws IOException {
+        if (files != null) {
+            files.writeSnapshot(ranking.keySet());
+        }
+    }
+
+    // take a snapshot every period, on a daemon thread so it never keeps the program running
+    private void startSnapshots(Duration period) {
+        snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "leaderboard-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshots.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            }
+            catch (IOException e) {
+                System.err.println("couldn't save a leaderboard snapshot: " + e.getMessage()); // next time might work
+            }
+        }, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** stop taking snapshots, save one last one so the next load is quick, and stop saving updates */
+    @Override
+    public void close() throws IOException {
+        if (snapshots != null) {
+            snapshots.shutdown();
+        }
+        if (files != null) {
+            snapshot();
+            files.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("leaderboard: %,d players", size());
+    }
+
+    // a Fenwick tree of the number of players with each number of wins (anyone past MAX_COUNTED_WINS is counted as
+    // MAX_COUNTED_WINS). Entry i holds the count for the (i & -i) win totals ending at i - 1, so adding a player or
+    // counting everyone up to some number of wins each touch one entry per bit of the number
+    private static final class WinCounts {
+        private final AtomicLongArray tree = new AtomicLongArray(MAX_COUNTED_WINS + 2); // entry 0 isn't used
+        private final AtomicLong total = new AtomicLong();
+
+        // counting the given records, which is done in one pass instead of adding them one at a time
+        private WinCounts(PlayerRecord[] records) {
+            long[] counts = new long[tree.length()];
+            for (PlayerRecord record : records) {
+                counts[index(record.getWins())]++;
+            }
+            for (int i = 1; i < counts.length; i++) { // each entry passes its total on to the next one that covers it
+                int parent = i + (i & -i);
+                if (parent < counts.length) {
+                    counts[parent] += counts[i];
+                }
+                tree.set(i, counts[i]);
+            }
+            total.set(records.length);
+        }
+
+        private static int index(int wins) {
+            return Math.min(wins, MAX_COUNTED_WINS) + 1;
+        }
+
+        private void add(int wins, int delta) {
+            for (int i = index(wins); i < tree.length(); i += i & -i) {
+                tree.addAndGet(i, delta);
+            }
+            total.addAndGet(delta);
+        }
+
+        // the number of players with more than the given wins, which has to be under MAX_COUNTED_WINS
+        private int countMoreThan(int wins) {
+            long atMost = 0;
+            for (int i = index(wins); i > 0; i -= i & -i) {
+                atMost += tree.get(i);
+            }
+            return (int) Math.max(total.get() - atMost, 0); // they can briefly disagree while someone's being moved
+        }
+    }
+
+    // a read-only SortedMap of records[from] to records[to - 1], which are strictly in RANKING order, each mapped to
+    // true like every entry in the ranking. Views of part of it are found by binary search, and a key outside the part
+    // a view covers just narrows it to nothing rather than being an error
+    private static final class RankedRecords extends AbstractMap<PlayerRecord, Boolean>
+            implements SortedMap<PlayerRecord, Boolean> {
+        private final PlayerRecord[] records;
+        private final int from;
+        private final int to;
+
+        private RankedRecords(PlayerRecord[] records, int from, int to) {
+            this.records = records;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Comparator<? super PlayerRecord> comparator() {
+            return PlayerRecord.RANKING;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof PlayerRecord
+                   && Arrays.binarySearch(records, from, to, (PlayerRecord) key, PlayerRecord.RANKING) >= 0;
+        }
+
+        @Override
+        public Boolean get(Object key) {
+            return containsKey(key) ? Boolean.TRUE : null;
+        }
+
+        @Override
+        public PlayerRecord firstKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return records[from];
+        }
+
+        @Override
+        public PlayerRecord lastKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return records[to - 1];
+        }
+
+        @Override
+        public SortedMap<PlayerRecord, Boolean> subMap(PlayerRecord fromKey, PlayerRecord toKey) {
+            if (PlayerRecord.RANKING.compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return new RankedRecords(records, indexOf(fromKey), indexOf(toKey));
+        }
+
+        @Override
+        public SortedMap<PlayerRecord, Boolean> headMap(PlayerRecord toKey) {
+            return new RankedRecords(records, from, indexOf(toKey));
+        }
+
+        @Override
+        public SortedMap<PlayerRecord, Boolean> tailMap(PlayerRecord fromKey) {
+            return new RankedRecords(records, indexOf(fromKey), to);
+        }
+
+        // where the given record is, or would go, between from and to
+        private int indexOf(PlayerRecord key) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (PlayerRecord.RANKING.compare(records[middle], key) < 0) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public Set<Entry<PlayerRecord, Boolean>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<PlayerRecord, Boolean>> iterator() {
+                    return new Iterator<>() {
+                        private int next = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < to;
+                        }
+
+                        @Override
+                        public Entry<PlayerRecord, Boolean> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            return Map.entry(records[next++], Boolean.TRUE);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return to - from;
+                }
+            };
+        }
+    }
+}
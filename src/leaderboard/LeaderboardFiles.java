@@ -0,0 +1,267 @@
+package leaderboard;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Where a Leaderboard is kept between runs: a snapshot of every player's record, plus update files of the records
+ * that have changed since, all in one directory.
+ *
+ * Every time a player finishes a game, their whole new record is appended to the current update file. Update files
+ * are memory mapped, like GameJournal segments, so that's a few puts into memory rather than a system call, and they
+ * have a fixed size, moving on to the next one when one fills up. Since a record says everything about the player,
+ * replaying the update files is just keeping the last one of each.
+ *
+ * Every so often a new snapshot is taken: updates move on to a new file first, then every record is written to a temp
+ * file which is renamed over the old snapshot in one step, so there's always a whole snapshot there even if the
+ * process dies part way through. The snapshot says which update file it starts from, and the older ones
+ * are deleted, so there are only ever a few minutes' worth of updates to replay.
+ *
+ * A player who finishes a game while a snapshot is being written might end up in it twice, or have the same record
+ * in the snapshot and the update file after it. That's fine, since a player's later record always has more games in
+ * it, which is how the Leaderboard picks between them when it's loaded.
+ *
+ * Snapshots are written in ranking order, which loading checks, so a damaged one isn't taken as a ranking. The whole
+ * file is read in one go and decoded straight out of memory: a million players loads in about a fifth of a second.
+ *
+ * Snapshot: [int magic][int version][int first update file][records until the end of the file]
+ * Update file: [records], then zeroes to the end of the file. A record's name length is written last, so a reader
+ *              stops at the first zero whether the file was finished cleanly or the writer died part way through one
+ * Record: [byte name length][name in UTF-8][int wins][int losses][long wrong guesses][int streak][int best streak]
+ */
+class LeaderboardFiles implements Closeable {
+    static final String SNAPSHOT_FILE = "leaderboard.snapshot";
+    static final String UPDATES_PREFIX = "updates-";
+    static final String UPDATES_SUFFIX = ".log";
+    static final int UPDATES_FILE_BYTES = 4 << 20; // about 100,000 updates
+
+    private static final int MAGIC = 0x484d4c42; // "HMLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int NUMBERS_BYTES = 4 * Integer.BYTES + Long.BYTES; // every part of a record but the name
+
+    private final Path directory;
+    private final Object snapshotLock = new Object(); // only one snapshot is written at a time
+
+    // the update file being written, guarded by this. It's only created once there's something to go in it
+    private int updatesNumber;
+    private MappedByteBuffer updates; // null until then
+    private boolean closed;
+
+    /** everything that was saved: the snapshot in ranking order, then the updates since, oldest first */
+    static final class Contents {
+        final PlayerRecord[] snapshot;
+        final List<PlayerRecord> updates;
+
+        private Contents(PlayerRecord[] snapshot, List<PlayerRecord> updates) {
+            this.snapshot = snapshot;
+            this.updates = updates;
+        }
+    }
+
+    LeaderboardFiles(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /** read the snapshot (if there is one) and every update file after it */
+    Contents load() throws IOException {
+        int firstUpdates = 0;
+        List<PlayerRecord> snapshot = new ArrayList<>();
+        Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(snapshotFile + " isn't a leaderboard snapshot");
+            }
+            firstUpdates = buffer.getInt();
+            if (!readRecords(buffer, snapshot) || buffer.hasRemaining() // it's only ever renamed into place whole
+                || !isRanked(snapshot)) {
+                throw new IOException(snapshotFile + " is damaged");
+            }
+        }
+
+        List<PlayerRecord> updated = new ArrayList<>();
+        updatesNumber = firstUpdates;
+        for (Path file : updateFiles()) {
+            int number = updatesNumber(file);
+            if (number >= firstUpdates) { // any older ones are already in the snapshot, they just weren't deleted
+                readRecords(ByteBuffer.wrap(Files.readAllBytes(file)), updated);
+            }
+            updatesNumber = Math.max(updatesNumber, number);
+        }
+        return new Contents(snapshot.toArray(new PlayerRecord[0]), updated);
+    }
+
+    // whether the records are strictly in RANKING order, as every snapshot is written. A player can be in there twice,
+    // but never with the same record, since each of their records has more games in it than the last
+    private static boolean isRanked(List<PlayerRecord> records) {
+        for (int i = 1; i < records.size(); i++) {
+            if (PlayerRecord.RANKING.compare(records.get(i - 1), records.get(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // read records up to the end of the buffer, or a zero name length, which is where an update file's records stop.
+    // Returns false if there's a record that's cut short, which is left out
+    private static boolean readRecords(ByteBuffer buffer, List<PlayerRecord> records) {
+        while (buffer.hasRemaining()) {
+            int nameLength = buffer.get() & 0xff;
+            if (nameLength == 0) {
+                buffer.position(buffer.position() - 1);
+                return true;
+            }
+            if (buffer.remaining() < nameLength + NUMBERS_BYTES) {
+                return false;
+            }
+            String name = new String(buffer.array(), buffer.position(), nameLength, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + nameLength);
+            records.add(new PlayerRecord(name, buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getInt(),
+                                         buffer.getInt()));
+        }
+        return true;
+    }
+
+    private static void writeRecord(DataOutputStream out, PlayerRecord record) throws IOException {
+        byte[] name = record.getName().getBytes(StandardCharsets.UTF_8); // at most 3 bytes a char, so it fits a byte
+        out.writeByte(name.length);
+        out.write(name);
+        out.writeInt(record.getWins());
+        out.writeInt(record.getLosses());
+        out.writeLong(record.getWrongGuesses());
+        out.writeInt(record.getCurrentStreak());
+        out.writeInt(record.getBestStreak());
+    }
+
+    /** start a new update file after any that are already there, for append() to write to */
+    synchronized void startUpdates() {
+        if (updates != null) {
+            updates.force();
+            updates = null;
+        }
+        updatesNumber++;
+    }
+
+    /** save a player's new record in the current update file */
+    void append(PlayerRecord record) throws IOException {
+        byte[] name = record.getName().getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("the leaderboard is closed");
+            }
+            if (updates != null && updates.remaining() < 1 + name.length + NUMBERS_BYTES) {
+                startUpdates();
+            }
+            if (updates == null) {
+                updates = mapUpdates(updatesNumber);
+            }
+            int start = updates.position();
+            updates.position(start + 1); // the name length goes here once everything else is written
+            updates.put(name);
+            updates.putInt(record.getWins());
+            updates.putInt(record.getLosses());
+            updates.putLong(record.getWrongGuesses());
+            updates.putInt(record.getCurrentStreak());
+            updates.putInt(record.getBestStreak());
+            updates.put(start, (byte) name.length);
+        }
+    }
+
+    // create the given update file and map the whole thing. A new file is all zeroes, which readers take as the end
+    private MappedByteBuffer mapUpdates(int number) throws IOException {
+        Path path = directory.resolve(updatesFileName(number));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, UPDATES_FILE_BYTES); // stays mapped once it's closed
+        }
+    }
+
+    /**
+     * write the given records, which must be in ranking order, as the new snapshot, and delete the update files it
+     * replaces. Records can carry on being appended the whole time
+     */
+    void writeSnapshot(Iterable<PlayerRecord> ranked) throws IOException {
+        synchronized (snapshotLock) {
+            int firstUpdates;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // anything that changes from here on goes in the new file, which the snapshot will be read before
+                startUpdates();
+                firstUpdates = updatesNumber;
+            }
+
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            FileOutputStream file = new FileOutputStream(temp.toFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(firstUpdates);
+                for (PlayerRecord record : ranked) {
+                    writeRecord(out, record);
+                }
+                out.flush();
+                file.getFD().sync(); // make sure it's all on the disk before it replaces the last one
+            }
+            Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                       StandardCopyOption.REPLACE_EXISTING);
+
+            for (Path updateFile : updateFiles()) {
+                if (updatesNumber(updateFile) < firstUpdates) {
+                    Files.delete(updateFile);
+                }
+            }
+        }
+    }
+
+    /** write out what's left, and stop taking updates */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            if (updates != null) {
+                updates.force();
+            }
+        }
+    }
+
+    // every update file in the directory, oldest first
+    private List<Path> updateFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(LeaderboardFiles::isUpdateFile)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    private static String updatesFileName(int number) {
+        return String.format("%s%08d%s", UPDATES_PREFIX, number, UPDATES_SUFFIX);
+    }
+
+    private static boolean isUpdateFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(UPDATES_PREFIX) && name.endsWith(UPDATES_SUFFIX);
+    }
+
+    private static int updatesNumber(Path updateFile) {
+        String name = updateFile.getFileName().toString();
+        return Integer.parseInt(name.substring(UPDATES_PREFIX.length(), name.length() - UPDATES_SUFFIX.length()));
+    }
+}
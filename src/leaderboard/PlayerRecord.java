@@ -0,0 +1,91 @@
+package leaderboard;
+
+import java.util.Comparator;
+
+/**
+ * One player's results on the Leaderboard: how many games they've won and lost as the guesser, how many wrong guesses
+ * they've made over all of them, and their winning streaks. These never change once made, so they can be handed out
+ * to any thread, and each game a player finishes swaps in a new one.
+ */
+public final class PlayerRecord {
+    /** the order of the leaderboard: most wins first, then fewest losses, then by name so no two players tie */
+    public static final Comparator<PlayerRecord> RANKING = PlayerRecord::compareRanking;
+
+    private final String name;
+    private final int wins;
+    private final int losses;
+    private final long wrongGuesses;
+    private final int currentStreak; // wins in a row, up to their latest game
+    private final int bestStreak;
+
+    PlayerRecord(String name, int wins, int losses, long wrongGuesses, int currentStreak, int bestStreak) {
+        this.name = name;
+        this.wins = wins;
+        this.losses = losses;
+        this.wrongGuesses = wrongGuesses;
+        this.currentStreak = currentStreak;
+        this.bestStreak = bestStreak;
+    }
+
+    /** a player who hasn't finished any games yet */
+    static PlayerRecord newPlayer(String name) {
+        return new PlayerRecord(name, 0, 0, 0, 0, 0);
+    }
+
+    /** this player's record once they've finished one more game */
+    PlayerRecord afterGame(boolean won, int wrongGuessesInGame) {
+        int streak = won ? currentStreak + 1 : 0;
+        return new PlayerRecord(name, won ? wins + 1 : wins, won ? losses : losses + 1,
+                                wrongGuesses + wrongGuessesInGame, streak, Math.max(bestStreak, streak));
+    }
+
+    // written out by hand rather than chaining Comparators, since the ranking does a few dozen of these for every game
+    // that finishes, and the chained lambdas took up most of the time it spent recording one
+    private static int compareRanking(PlayerRecord a, PlayerRecord b) {
+        if (a.wins != b.wins) {
+            return a.wins > b.wins ? -1 : 1;
+        }
+        if (a.losses != b.losses) {
+            return a.losses < b.losses ? -1 : 1;
+        }
+        return a.name.compareTo(b.name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    /** every game they've finished, won or lost */
+    public int getGames() {
+        return wins + losses;
+    }
+
+    /** the wrong guesses they've made, over every game */
+    public long getWrongGuesses() {
+        return wrongGuesses;
+    }
+
+    /** the number of games they've won since they last lost */
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    /** the most games they've ever won in a row */
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %,d won, %,d lost, %,d wrong guesses, streak of %d (best %d)", name, wins, losses,
+                             wrongGuesses, currentStreak, bestStreak);
+    }
+}
@@ -0,0 +1,232 @@
+package metrics;
+
+import game.GameStatus;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on counters for the whole process: the dictionary, word lookups, hints, games and turns, and rendering.
+ * There's one shared instance, INSTANCE, which the rest of the code records into as things happen.
+ *
+ * Recording has to be cheap enough to leave on everywhere, so every counter is a LongAdder (threads add to their own
+ * cell rather than contending on one value) and nothing takes a lock. Word lookups and turns only take a few dozen
+ * nanoseconds, so reading the clock for every one of them would cost as much as the thing being timed. Instead their
+ * latency is timed for a random sample of them (see sampleLatency()), while their counts are always exact. Turns are
+ * sampled a whole game at a time, so the games that aren't timed don't even pay for deciding whether to time a turn.
+ *
+ * Call register() to make these readable over JMX, and startLogging() to also print them out every so often.
+ */
+public class HangmanMetrics implements HangmanMetricsMXBean {
+    public static final String OBJECT_NAME = "hangman:type=Metrics";
+
+    private static final int LATENCY_SAMPLE_RATE = 32; // time 1 in this many of the quick operations, a power of two
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    public static final HangmanMetrics INSTANCE = new HangmanMetrics(); // after STATUSES, which the constructor uses
+
+    private volatile long dictionaryLoadNanos;
+    private volatile int dictionaryWordCount;
+    private final LongAdder dictionaryLoadFailures = new LongAdder();
+
+    private final LongAdder wordLookupHits = new LongAdder();
+    private final LongAdder wordLookupMisses = new LongAdder();
+    private final LatencyHistogram wordLookupLatency = new LatencyHistogram();
+
+    private final LongAdder hintCacheHits = new LongAdder();
+    private final LongAdder hintCacheMisses = new LongAdder();
+
+    private final LatencyHistogram turnLatency = new LatencyHistogram();
+    private final LatencyHistogram renderLatency = new LatencyHistogram();
+
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder[] gamesEnded = new LongAdder[STATUSES.length]; // by GameStatus ordinal
+
+    private HangmanMetrics() {
+        for (int i = 0; i < gamesEnded.length; i++) {
+            gamesEnded[i] = new LongAdder();
+        }
+    }
+
+    /** should this quick operation have its latency timed? True for a random 1 in LATENCY_SAMPLE_RATE of them */
+    public static boolean sampleLatency() {
+        return (ThreadLocalRandom.current().nextInt() & (LATENCY_SAMPLE_RATE - 1)) == 0;
+    }
+
+    public void dictionaryLoaded(int wordCount, long loadNanos) {
+        dictionaryWordCount = wordCount;
+        dictionaryLoadNanos = loadNanos;
+    }
+
+    public void dictionaryFailedToLoad() {
+        dictionaryLoadFailures.increment();
+    }
+
+    public void wordLookedUp(boolean found) {
+        (found ? wordLookupHits : wordLookupMisses).increment();
+    }
+
+    public void hintLookedUp(boolean cached) {
+        (cached ? hintCacheHits : hintCacheMisses).increment();
+    }
+
+    public LatencyHistogram wordLookupLatency() {
+        return wordLookupLatency;
+    }
+
+    public LatencyHistogram turnLatency() {
+        return turnLatency;
+    }
+
+    public LatencyHistogram renderLatency() {
+        return renderLatency;
+    }
+
+    public void gameStarted() {
+        gamesStarted.increment();
+    }
+
+    public void gameEnded(GameStatus status) {
+        gamesEnded[status.ordinal()].increment();
+    }
+
+    @Override
+    public long getDictionaryLoadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dictionaryLoadNanos);
+    }
+
+    @Override
+    public int getDictionaryWordCount() {
+        return dictionaryWordCount;
+    }
+
+    @Override
+    public long getDictionaryLoadFailures() {
+        return dictionaryLoadFailures.sum();
+    }
+
+    @Override
+    public long getWordLookupHits() {
+        return wordLookupHits.sum();
+    }
+
+    @Override
+    public long getWordLookupMisses() {
+        return wordLookupMisses.sum();
+    }
+
+    @Override
+    public LatencySnapshot getWordLookupLatency() {
+        return wordLookupLatency.snapshot();
+    }
+
+    @Override
+    public long getHintCacheHits() {
+        return hintCacheHits.sum();
+    }
+
+    @Override
+    public long getHintCacheMisses() {
+        return hintCacheMisses.sum();
+    }
+
+    @Override
+    public LatencySnapshot getTurnLatency() {
+        return turnLatency.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getRenderLatency() {
+        return renderLatency.snapshot();
+    }
+
+    @Override
+    public long getGamesStarted() {
+        return gamesStarted.sum();
+    }
+
+    @Override
+    public Map<String, Long> getGamesEndedByStatus() {
+        Map<String, Long> ended = new LinkedHashMap<>();
+        for (GameStatus status : STATUSES) {
+            if (status.isGameOver()) {
+                ended.put(status.name(), gamesEnded[status.ordinal()].sum());
+            }
+        }
+        return ended;
+    }
+
+    @Override
+    public long getGamesWon() {
+        long won = 0;
+        for (GameStatus status : STATUSES) {
+            won += status.isGuesserWin() ? gamesEnded[status.ordinal()].sum() : 0;
+        }
+        return won;
+    }
+
+    @Override
+    public long getGamesLost() {
+        long lost = 0;
+        for (GameStatus status : STATUSES) {
+            lost += status.isGameOver() && !status.isGuesserWin() ? gamesEnded[status.ordinal()].sum() : 0;
+        }
+        return lost;
+    }
+
+    /** make the metrics readable over JMX. Does nothing if they're already registered */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch (InstanceAlreadyExistsException e) {
+            // already registered, e.g. both the server and a UI in the same process asked for it
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("couldn't register metrics with JMX", e);
+        }
+    }
+
+    /**
+     * print a summary of the metrics to the given stream every period, on a background daemon thread. Returns the
+     * scheduler doing it, so it can be shut down
+     */
+    public ScheduledExecutorService startLogging(Duration period, PrintStream out) {
+        ScheduledExecutorService logger = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(() -> out.println(this), period.toMillis(), period.toMillis(),
+                                   TimeUnit.MILLISECONDS);
+        return logger;
+    }
+
+    /** all the metrics, one line for each area */
+    @Override
+    public String toString() {
+        return String.format("metrics:%n" +
+                             "  dictionary: %,d words loaded in %d ms, %d failed loads%n" +
+                             "  word lookups: %,d hits, %,d misses, %s%n" +
+                             "  hints: %,d from the cache, %,d worked out%n" +
+                             "  games: %,d started, %,d won, %,d lost %s%n" +
+                             "  turns: %s%n" +
+                             "  rendering: %s",
+                             getDictionaryWordCount(), getDictionaryLoadMillis(), getDictionaryLoadFailures(),
+                             getWordLookupHits(), getWordLookupMisses(), getWordLookupLatency(),
+                             getHintCacheHits(), getHintCacheMisses(),
+                             getGamesStarted(), getGamesWon(), getGamesLost(), getGamesEndedByStatus(),
+                             getTurnLatency(), getRenderLatency());
+    }
+}
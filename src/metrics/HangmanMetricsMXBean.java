@@ -0,0 +1,51 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * What HangmanMetrics shows over JMX, under the name "hangman:type=Metrics". Any JMX client can read these from a
+ * running game or server, e.g. jconsole, or jcmd/jmc from the command line.
+ */
+public interface HangmanMetricsMXBean {
+
+    /** how long the last dictionary load took, in milliseconds */
+    long getDictionaryLoadMillis();
+
+    /** the number of words in the dictionary as of the last load */
+    int getDictionaryWordCount();
+
+    /** the number of times the dictionary failed to load */
+    long getDictionaryLoadFailures();
+
+    /** lookups for words that are in the dictionary */
+    long getWordLookupHits();
+
+    /** lookups for words that aren't in the dictionary */
+    long getWordLookupMisses();
+
+    /** how long word lookups take, from a sample of them */
+    LatencySnapshot getWordLookupLatency();
+
+    /** hints for the guessing player that came from the cache */
+    long getHintCacheHits();
+
+    /** hints for the guessing player that had to be worked out */
+    long getHintCacheMisses();
+
+    /** how long Game takes to apply a turn, from a sample of them */
+    LatencySnapshot getTurnLatency();
+
+    /** how long showing the game to a player takes, building the screen and writing it out */
+    LatencySnapshot getRenderLatency();
+
+    long getGamesStarted();
+
+    /** the number of games that ended with each GameStatus */
+    Map<String, Long> getGamesEndedByStatus();
+
+    /** games the guessing player won */
+    long getGamesWon();
+
+    /** games the guessing player lost */
+    long getGamesLost();
+}
@@ -0,0 +1,107 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something took, in buckets that grow exponentially, so a fixed handful of counters covers everything
+ * from a few nanoseconds to minutes. Each power of two is split into 4 buckets, so a percentile read back from this is
+ * never more than 25% above the real value.
+ *
+ * Every bucket is a LongAdder, so threads recording at the same time update separate cells instead of fighting over one
+ * counter, and recording never blocks. Reading adds the cells up, so it's a bit slower, but it's only done when someone
+ * looks at the metrics.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2; // 4 buckets for every power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /** count something that took the given number of nanoseconds */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos); // nanoTime() differences can't go backwards, but don't trust a bad clock
+        buckets[bucket(value)].increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /** the number of times recorded */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /** the mean time recorded, in nanoseconds */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalNanos.sum() / count;
+    }
+
+    /** the longest time recorded, in nanoseconds */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /** roughly the given percentile (e.g. 99.9) of the times recorded, in nanoseconds: the top of its bucket */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[NUM_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(bucketTop(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /** a copy of where things stand now, for reporting */
+    public LatencySnapshot snapshot() {
+        return new LatencySnapshot(getCount(), getMeanNanos(), getPercentileNanos(50), getPercentileNanos(99),
+                                   getPercentileNanos(99.9), getMaxNanos());
+    }
+
+    // small values get a bucket each, then every power of two is split into SUB_BUCKETS by the bits under its top bit
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int topBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (topBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (topBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // the largest value that goes in the given bucket
+    private static long bucketTop(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int topBit = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long bottom = (1L << topBit) | (subBucket << (topBit - SUB_BUCKET_BITS));
+        return bottom + (1L << (topBit - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,56 @@
+package metrics;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * The state of a LatencyHistogram at one point in time. It only has getters, so JMX tools (e.g. jconsole) show it as
+ * a set of named values.
+ */
+public class LatencySnapshot {
+    private final long count;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+
+    @ConstructorParameters({"count", "meanNanos", "p50Nanos", "p99Nanos", "p999Nanos", "maxNanos"})
+    public LatencySnapshot(long count, double meanNanos, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.0fns p50=%dns p99=%dns p99.9=%dns max=%dns", count, meanNanos, p50Nanos,
+                             p99Nanos, p999Nanos, maxNanos);
+    }
+}
@@ -0,0 +1,58 @@
+package server;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for handling connections, where each connection gets a thread of its own and spends most of its time
+ * blocked waiting for the player to type. Virtual threads are perfect for this, since a blocked virtual thread costs
+ * next to nothing, but they only exist from Java 21. So we look for them at runtime, and on older Java fall back to
+ * ordinary daemon threads with small stacks, which still handles thousands of connections.
+ */
+final class ConnectionThreads {
+    private static final long STACK_SIZE = 256 * 1024; // plenty for a game, and much less than the usual default
+
+    // Executors.newVirtualThreadPerTaskExecutor(), or null if this Java doesn't have virtual threads
+    private static final MethodHandle NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutor();
+
+    private ConnectionThreads() {
+    }
+
+    /** does this Java have virtual threads? */
+    static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /** an executor that starts a new thread for every task, named with the given prefix if they're platform threads */
+    static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke();
+            }
+            catch (Throwable e) { // e.g. a Java where they're still a preview feature that isn't turned on
+                // fall through to platform threads
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(null, task, namePrefix + "-" + threadCount.incrementAndGet(), STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static MethodHandle findVirtualThreadExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                                           MethodType.methodType(ExecutorService.class));
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
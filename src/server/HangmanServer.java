@@ -0,0 +1,276 @@
+package server;
+
+import analytics.GameAnalytics;
+import bot.LetterHints;
+import game.Game;
+import game.GameRunner;
+import journal.GameJournal;
+import leaderboard.Leaderboard;
+import metrics.HangmanMetrics;
+import ui.ConsoleDictionaryMessages;
+import ui.TwoPlayerUserInteractions;
+import words.Dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts hangman over TCP for lots of players at once. Players are paired up in the order they connect, then one picks
+ * a phrase and the other guesses, and they swap after every game. Each connection gets its own thread (a virtual
+ * thread if this Java has them, see ConnectionThreads), which just blocks while waiting for its player to type.
+ *
+ * Every game shares the one Dictionary, which is read-only once it's loaded, so it's safe to use from every thread.
+ *
+ * Every game can be recorded in a GameJournal, to be replayed later with JournalReplay.
+ *
+ * With a Leaderboard, each player is asked for a name when they connect, and their results as the guesser are kept
+ * under it, across every pair they're in and across restarts of the server.
+ *
+ * With --analytics, every finished game is counted in GameAnalytics, which are written to the given CSV file every
+ * minute and once more when the server stops, for tuning which words are too easy or too hard.
+ *
+ * The server's metrics (see HangmanMetrics) can be read over JMX, and are printed out every --metrics-period seconds.
+ *
+ * Run from the command line: java server.HangmanServer [--port 4567] [--journal directory] [--metrics-period 60]
+ *                                                      [--leaderboard directory] [--analytics file.csv]
+ */
+public class HangmanServer implements Closeable {
+    public static final int DEFAULT_PORT = 4567;
+
+    private static final int BACKLOG = 1024; // connections that can queue up waiting to be accepted
+    private static final int READ_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(10); // drop players who walk away
+    private static final Duration LEADERBOARD_SNAPSHOT_PERIOD = Duration.ofMinutes(5);
+    private static final Duration ANALYTICS_EXPORT_PERIOD = Duration.ofMinutes(1);
+
+    private final ServerSocket serverSocket;
+    private final Dictionary dictionary;
+    private final GameJournal journal; // records every game, or null if they aren't being recorded
+    private final LetterHints hints; // shared by every player, so a hint worked out for one is cached for them all
+    private final Leaderboard leaderboard; // every player's results, or null if they aren't kept
+    private final GameAnalytics analytics; // counts every finished game, or null if they aren't counted
+    private final ExecutorService connectionThreads = ConnectionThreads.newThreadPerTaskExecutor("hangman-player");
+    private final Set<SocketUserInteractions> connectedPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeGames = new AtomicInteger();
+    private SocketUserInteractions waitingPlayer; // connected but not paired up yet, guarded by this
+
+    /** listen on the given port (0 picks any free port) of the given address (null for every address) */
+    public HangmanServer(int port, InetAddress address, Dictionary dictionary) throws IOException {
+        this(port, address, dictionary, null);
+    }
+
+    /** the same, recording every game in the given journal (if it's not null), which the caller closes */
+    public HangmanServer(int port, InetAddress address, Dictionary dictionary, GameJournal journal) throws IOException {
+        this(port, address, dictionary, journal, null);
+    }
+
+    /** the same, keeping everyone's results on the given leaderboard (if it's not null), which the caller closes */
+    public HangmanServer(int port, InetAddress address, Dictionary dictionary, GameJournal journal,
+                         Leaderboard leaderboard) throws IOException {
+        this(port, address, dictionary, journal, leaderboard, null);
+    }
+
+    /** the same, counting every finished game in the given analytics (if they're not null) */
+    public HangmanServer(int port, InetAddress address, Dictionary dictionary, GameJournal journal,
+                         Leaderboard leaderboard, GameAnalytics analytics) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG, address);
+        this.dictionary = dictionary;
+        this.journal = journal;
+        this.hints = new LetterHints(dictionary);
+        this.leaderboard = leaderboard;
+        this.analytics = analytics;
+    }
+
+    /** the port we're listening on */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** the number of players currently connected */
+    public int getConnectedPlayers() {
+        return connectedPlayers.size();
+    }
+
+    /** the number of games currently being played */
+    public int getActiveGames() {
+        return activeGames.get();
+    }
+
+    /** accept connections until the server is closed, handing each one to its own thread */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            }
+            catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return; // closed from another thread, that's how we stop
+                }
+                throw e;
+            }
+            connectionThreads.execute(() -> handleConnection(socket));
+        }
+    }
+
+    /** stop accepting connections, and drop everyone who's connected */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connectionThreads.shutdown();
+        connectedPlayers.forEach(HangmanServer::closeQuietly); // wakes up their threads, which are blocked reading
+    }
+
+    // runs on the connection's own thread
+    private void handleConnection(Socket socket) {
+        SocketUserInteractions player;
+        try {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true); // every write is a whole screen or prompt, so send it right away
+            player = new SocketUserInteractions(socket, dictionary);
+            player.setHints(hints);
+        }
+        catch (IOException e) {
+            closeQuietly(socket);
+            return;
+        }
+        connectedPlayers.add(player);
+
+        if (leaderboard != null) {
+            try {
+                player.setPlayerName(player.getPlayerNameFromUser());
+            }
+            catch (UncheckedIOException e) { // they left before they got as far as a game
+                disconnect(player);
+                return;
+            }
+        }
+
+        // the first player of a pair just waits, the second one's thread runs the games for both of them. Nobody reads
+        // from the one who's waiting, so they might have left since, in which case we wait for someone else instead
+        SocketUserInteractions partner = pairUp(player);
+        while (partner != null && !partner.isConnected()) {
+            disconnect(partner);
+            partner = pairUp(player);
+        }
+        if (partner == null) {
+            player.showMessage("waiting for another player to join...");
+            return;
+        }
+        playUntilQuit(partner, player);
+    }
+
+    // pair the player with the one who's waiting, or make them the one who's waiting if there isn't anyone
+    private synchronized SocketUserInteractions pairUp(SocketUserInteractions player) {
+        SocketUserInteractions partner = waitingPlayer;
+        waitingPlayer = partner == null ? player : null;
+        return partner;
+    }
+
+    // play games between the two players until one of them wants to stop, swapping who picks the phrase each game
+    private void playUntilQuit(SocketUserInteractions first, SocketUserInteractions second) {
+        activeGames.incrementAndGet();
+        try {
+            SocketUserInteractions phraseSetter = first;
+            SocketUserInteractions guesser = second;
+            boolean keepPlaying = true;
+            while (keepPlaying) {
+                TwoPlayerUserInteractions players = new TwoPlayerUserInteractions(phraseSetter, guesser);
+                Game game = GameRunner.play(players, journal, analytics);
+                if (leaderboard != null) {
+                    String name = guesser.getPlayerName();
+                    guesser.showMessage(String.format("%s, ranked %d of %,d", leaderboard.record(name, game),
+                                                      leaderboard.rank(name).orElse(0), leaderboard.size()));
+                }
+                keepPlaying = players.wantToPlayAgain();
+
+                SocketUserInteractions nextGuesser = phraseSetter;
+                phraseSetter = guesser;
+                guesser = nextGuesser;
+            }
+        }
+        catch (UncheckedIOException e) { // one of them disconnected or timed out, let the other one know
+            first.showMessage("the other player left the game");
+            second.showMessage("the other player left the game");
+        }
+        finally {
+            activeGames.decrementAndGet();
+            disconnect(first);
+            disconnect(second);
+        }
+    }
+
+    private void disconnect(SocketUserInteractions player) {
+        connectedPlayers.remove(player);
+        closeQuietly(player);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        }
+        catch (IOException e) {
+            // nothing useful to do, the connection is gone either way
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        int port = Integer.parseInt(option(options, "--port", String.valueOf(DEFAULT_PORT)));
+        String journalDirectory = option(options, "--journal", null);
+        long metricsPeriod = Long.parseLong(option(options, "--metrics-period", "60"));
+        String leaderboardDirectory = option(options, "--leaderboard", null);
+        String analyticsFile = option(options, "--analytics", null);
+
+        HangmanMetrics.INSTANCE.register();
+        if (metricsPeriod > 0) {
+            HangmanMetrics.INSTANCE.startLogging(Duration.ofSeconds(metricsPeriod), System.out);
+        }
+
+        Dictionary dictionary = new Dictionary(new ConsoleDictionaryMessages());
+        GameJournal journal = journalDirectory == null ? null : new GameJournal(Paths.get(journalDirectory));
+        Leaderboard leaderboard = leaderboardDirectory == null ? null
+                                                               : Leaderboard.open(Paths.get(leaderboardDirectory),
+                                                                                  LEADERBOARD_SNAPSHOT_PERIOD);
+        GameAnalytics analytics = analyticsFile == null ? null : new GameAnalytics();
+        ScheduledExecutorService analyticsExporter = analytics == null ? null
+                : analytics.startExporting(Paths.get(analyticsFile), ANALYTICS_EXPORT_PERIOD, System.out);
+        try (HangmanServer server = new HangmanServer(port, null, dictionary, journal, leaderboard, analytics)) {
+            System.out.println(String.format("hangman server listening on port %d (%s threads)", server.getPort(),
+                                             ConnectionThreads.virtualThreadsAvailable() ? "virtual" : "platform"));
+            server.serve();
+        }
+        finally {
+            if (journal != null) {
+                journal.close();
+            }
+            if (leaderboard != null) {
+                leaderboard.close();
+            }
+            if (analytics != null) {
+                analyticsExporter.shutdown();
+                analytics.writeCsv(Paths.get(analyticsFile)); // whatever's been played since the last export
+            }
+        }
+    }
+
+    // the value following the given option on the command line, or the default if it's not there
+    private static String option(List<String> options, String name, String defaultValue) {
+        int index = options.indexOf(name);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : defaultValue;
+    }
+}
@@ -0,0 +1,223 @@
+package server;
+
+import ui.ConsoleDictionaryMessages;
+import ui.TextUserInteractions;
+import words.Dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays lots of games against a HangmanServer at once, to see how it holds up. Every session is two connections
+ * playing each other through the server, and each connection is a simple bot that answers whatever prompt it gets:
+ * a random dictionary word when it's asked for a phrase, and the next letter in order of how common it is when it's
+ * asked for a guess. The time from sending a guess to getting the next prompt back is the turn latency.
+ *
+ * Run from the command line: java server.LoadTestClient [--host localhost] [--port 4567] [--sessions 100] [--games 5]
+ * Pass --embedded to start a server in this process on a loopback port instead of connecting to a running one.
+ */
+public class LoadTestClient {
+    private static final String GUESS_ORDER = "etaoinshrdlcumwfgypbvkjxqz";
+
+    private final String host;
+    private final int port;
+    private final int gamesPerSession;
+    private final List<String> words; // the phrases to pick from
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger peakConnected = new AtomicInteger();
+
+    public LoadTestClient(String host, int port, int gamesPerSession, List<String> words) {
+        this.host = host;
+        this.port = port;
+        this.gamesPerSession = gamesPerSession;
+        this.words = words;
+    }
+
+    /** run the given number of sessions all at once, and return the latency of every turn in nanoseconds, sorted */
+    public long[] run(int sessions) throws InterruptedException {
+        ExecutorService threads = ConnectionThreads.newThreadPerTaskExecutor("load-test");
+        try {
+            List<Callable<long[]>> players = new ArrayList<>();
+            for (int i = 0; i < sessions * 2; i++) {
+                long seed = i;
+                players.add(() -> play("bot-" + seed, new Random(seed)));
+            }
+
+            List<long[]> results = new ArrayList<>();
+            int failures = 0;
+            for (Future<long[]> future : threads.invokeAll(players)) {
+                try {
+                    results.add(future.get());
+                }
+                catch (ExecutionException e) {
+                    if (failures++ == 0) { // one of them is enough to see what's going wrong
+                        e.getCause().printStackTrace();
+                    }
+                }
+            }
+            if (failures > 0) {
+                System.err.println(String.format("%d of %d connections failed", failures, sessions * 2));
+            }
+
+            long[] latencies = results.stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(latencies);
+            return latencies;
+        }
+        finally {
+            threads.shutdown();
+        }
+    }
+
+    /** the most connections that were open at the same time */
+    public int getPeakConnected() {
+        return peakConnected.get();
+    }
+
+    // one player, on its own connection, answering prompts until the server hangs up
+    private long[] play(String name, Random random) throws IOException {
+        long[] latencies = new long[64];
+        int turns = 0;
+
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            peakConnected.accumulateAndGet(connected.incrementAndGet(), Math::max);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                         StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                                                                                        StandardCharsets.UTF_8)));
+            int gamesPlayed = 0;
+            int nextLetter = 0;
+            long guessSentAt = 0; // when we sent the guess we're waiting to hear back about, or 0 if there isn't one
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                boolean guessPrompt = line.equals(TextUserInteractions.GUESS_PROMPT);
+                boolean playAgainPrompt = line.startsWith(TextUserInteractions.PLAY_AGAIN_QUESTION);
+
+                // the next prompt after a guess means the server has handled it and shown us the new state
+                if (guessSentAt != 0 && (guessPrompt || playAgainPrompt)) {
+                    if (turns == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, turns * 2);
+                    }
+                    latencies[turns++] = System.nanoTime() - guessSentAt;
+                    guessSentAt = 0;
+                }
+
+                if (line.equals(TextUserInteractions.NAME_PROMPT)) { // only asked if the server has a leaderboard
+                    send(out, name);
+                }
+                else if (line.equals(TextUserInteractions.PHRASE_PROMPT)) {
+                    send(out, words.get(random.nextInt(words.size())));
+                }
+                else if (guessPrompt) {
+                    guessSentAt = System.nanoTime();
+                    send(out, String.valueOf(GUESS_ORDER.charAt(nextLetter++)));
+                }
+                else if (playAgainPrompt) {
+                    gamesPlayed++;
+                    nextLetter = 0;
+                    send(out, gamesPlayed < gamesPerSession ? "y" : "n");
+                }
+            }
+        }
+        finally {
+            connected.decrementAndGet();
+        }
+        return Arrays.copyOf(latencies, turns);
+    }
+
+    private static void send(PrintWriter out, String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> options = Arrays.asList(args);
+        String host = option(options, "--host", "localhost");
+        int port = Integer.parseInt(option(options, "--port", String.valueOf(HangmanServer.DEFAULT_PORT)));
+        int sessions = Integer.parseInt(option(options, "--sessions", "100"));
+        int games = Integer.parseInt(option(options, "--games", "5"));
+
+        // the phrases have to be real words, or the server will keep asking for another one
+        Dictionary dictionary = new Dictionary(new ConsoleDictionaryMessages());
+        List<String> words = new ArrayList<>();
+        dictionary.forEachWord(word -> {
+            if (word.length() >= 4 && word.chars().allMatch(c -> c >= 'a' && c <= 'z')) {
+                words.add(word);
+            }
+        });
+
+        HangmanServer server = null;
+        if (options.contains("--embedded")) {
+            server = new HangmanServer(0, InetAddress.getLoopbackAddress(), dictionary);
+            host = InetAddress.getLoopbackAddress().getHostAddress();
+            port = server.getPort();
+            HangmanServer embedded = server;
+            Thread serverThread = new Thread(() -> {
+                try {
+                    embedded.serve();
+                }
+                catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }, "embedded-server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+        }
+
+        try {
+            System.out.println(String.format("playing %d sessions of %d games against %s:%d (%s threads)",
+                                             sessions, games, host, port,
+                                             ConnectionThreads.virtualThreadsAvailable() ? "virtual" : "platform"));
+            LoadTestClient client = new LoadTestClient(host, port, games, words);
+            long start = System.nanoTime();
+            long[] latencies = client.run(sessions);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(String.format("peak of %d connections (%d sessions) open at once",
+                                             client.getPeakConnected(), client.getPeakConnected() / 2));
+            System.out.println(String.format("%d turns in %.2f s (%.0f turns/sec)", latencies.length, seconds,
+                                             latencies.length / seconds));
+            if (latencies.length > 0) {
+                System.out.println(String.format("turn latency: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, " +
+                                                 "p99.9 %.3f ms, max %.3f ms",
+                                                 percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.90),
+                                                 percentileMillis(latencies, 0.99), percentileMillis(latencies, 0.999),
+                                                 latencies[latencies.length - 1] / 1e6));
+            }
+        }
+        finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    // the latency that the given fraction of turns were at or under, from the sorted latencies
+    private static double percentileMillis(long[] sortedLatencies, double fraction) {
+        int index = (int) Math.ceil(fraction * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    // the value following the given option on the command line, or the default if it's not there
+    private static String option(List<String> options, String name, String defaultValue) {
+        int index = options.indexOf(name);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : defaultValue;
+    }
+}
@@ -0,0 +1,119 @@
+package server;
+
+import ui.GameScreen;
+import ui.TextUserInteractions;
+import words.Dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A text UI for one player connected over a socket. The protocol is just lines of text, the same prompts and screens
+ * as the command line, so a player can connect with something like telnet or nc and play by typing.
+ *
+ * If the player disconnects (or the connection times out) while we're waiting for them to type, reading throws an
+ * UncheckedIOException, which ends whatever game they're in.
+ */
+public class SocketUserInteractions extends TextUserInteractions implements Closeable {
+    private static final char HIDDEN_CHAR = '-'; // display this char instead of a letter that hasn't been guessed yet
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Dictionary dictionary; // shared with every other player on the server
+    private String playerName; // their name on the leaderboard, or null if there isn't one. Set before pairing up
+
+    public SocketUserInteractions(Socket socket, Dictionary dictionary) throws IOException {
+        // we can't tell what the other end understands, so no escape codes
+        super(new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                                                                        StandardCharsets.UTF_8))),
+              new GameScreen(false, HIDDEN_CHAR));
+        this.socket = socket;
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    protected String readLine() {
+        try {
+            String line = in.readLine();
+            if (line == null) {
+                throw new EOFException("player disconnected");
+            }
+            return line;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * whether the player is still connected, checked without taking anything they've typed. Nothing reads from a
+     * player while they wait to be paired up, so this is how we find out they've left before pairing anyone with them.
+     * Only call it when nothing else is reading from them
+     */
+    public boolean isConnected() {
+        try {
+            if (in.ready()) {
+                return true; // they've typed something we haven't read yet
+            }
+            int readTimeout = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            try {
+                in.mark(1);
+                if (in.read() < 0) {
+                    return false; // they closed the connection
+                }
+                in.reset();
+                return true;
+            }
+            catch (SocketTimeoutException e) {
+                return true; // nothing to read, but the connection's still open
+            }
+            finally {
+                socket.setSoTimeout(readTimeout);
+            }
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** each player has their own screen, so there's nothing to hide from the other player */
+    @Override
+    protected void clearScreen() {
+    }
+
+    /** who this player is, for logging */
+    public String getAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    /** the name this player gave for the leaderboard, or null if they weren't asked for one */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public void setPlayerName(String playerName) {
+        this.playerName = playerName;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
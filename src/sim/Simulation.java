@@ -0,0 +1,179 @@
+package sim;
+
+import bot.FrequencyGuesser;
+import game.Game;
+import game.TurnResult;
+import ui.AsciiHangman;
+import ui.ConsoleDictionaryMessages;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.WordIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Plays a whole batch of words as hangman games against the computer guesser, to see how well the guesser does and
+ * how fast the game engine runs. Games are played straight through the Game engine with no UI at all, using the same
+ * rules as a real game (including the number of wrong guesses allowed by AsciiHangman.MAX_WRONG).
+ *
+ * The words are split up into chunks on a fork/join pool, so idle threads steal work from busy ones. Each chunk
+ * gets its own guesser and result, and the results are merged at the end, so threads never contend with each other.
+ *
+ * Run from the command line: java sim.Simulation [--sample N] [--seed N] [--threads 1,2,4]
+ * With no options it plays every word in the dictionary, and compares 1 thread up to one thread per core.
+ */
+public class Simulation {
+    private static final int GAMES_PER_TASK = 256; // don't split the work up any smaller than this
+    private static final int HARDEST_WORDS = 10;   // how many of the hardest words to report
+
+    private final List<String> words;
+    private final List<Phrase> phrases; // phrase for each word, made ahead of time so it's not part of the timing
+    private final WordIndex wordIndex;
+
+    public Simulation(List<String> words, WordIndex wordIndex) {
+        this.words = words;
+        this.phrases = words.stream().map(Simulation::toPhrase).collect(Collectors.toList());
+        this.wordIndex = wordIndex;
+    }
+
+    /** play every word once, with the work spread over the given number of threads */
+    public SimulationResult run(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new PlayWordsTask(0, words.size()));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /** play one whole game of the guesser against the given phrase, and return the finished game */
+    public static Game playGame(Phrase phrase, FrequencyGuesser guesser) {
+        Game game = new Game(phrase, AsciiHangman.MAX_WRONG);
+        while (!game.getGameStatus().isGameOver()) {
+            Letter guess = guesser.nextGuess(phrase, LetterMask.of(game.getCorrectlyGuessedLetters()),
+                                             LetterMask.of(game.getIncorrectlyGuessedLetters()));
+            game.applyTurn(TurnResult.guessedLetter(guess));
+        }
+        return game;
+    }
+
+    // plays the words between start and end, splitting the range in half until it's small enough to just play
+    @SuppressWarnings("serial") // ForkJoinTasks are Serializable, but these are never serialized
+    private class PlayWordsTask extends RecursiveTask<SimulationResult> {
+        private final int start;
+        private final int end;
+
+        private PlayWordsTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (end - start > GAMES_PER_TASK) {
+                int middle = (start + end) >>> 1;
+                PlayWordsTask right = new PlayWordsTask(middle, end);
+                right.fork();
+                SimulationResult left = new PlayWordsTask(start, middle).compute();
+                return left.merge(right.join());
+            }
+
+            FrequencyGuesser guesser = new FrequencyGuesser(wordIndex);
+            SimulationResult result = new SimulationResult(HARDEST_WORDS);
+            for (int i = start; i < end; i++) {
+                Game game = playGame(phrases.get(i), guesser);
+                result.add(words.get(i), game.getNumWrongGuesses(), game.getGameStatus().isGuesserWin());
+            }
+            return result;
+        }
+    }
+
+    // words in the dictionary are all letters (isPlayable() has checked), so this always gives us a Phrase
+    private static Phrase toPhrase(String word) {
+        return Phrase.fromString(word);
+    }
+
+    // only words made of nothing but letters can be played (e.g. not "don't")
+    private static boolean isPlayable(String word) {
+        return !word.isEmpty() && word.chars().allMatch(c -> (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'));
+    }
+
+    public static void main(String[] args) {
+        List<String> options = Arrays.asList(args);
+        int sample = Integer.parseInt(option(options, "--sample", "0"));
+        long seed = Long.parseLong(option(options, "--seed", "1"));
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = Arrays.stream(option(options, "--threads", defaultThreadCounts(cores)).split(","))
+                                           .map(Integer::parseInt)
+                                           .collect(Collectors.toList());
+
+        Dictionary dictionary = new Dictionary(new ConsoleDictionaryMessages());
+        List<String> words = new ArrayList<>();
+        dictionary.forEachWord(word -> {
+            if (isPlayable(word)) {
+                words.add(word);
+            }
+        });
+        if (sample > 0 && sample < words.size()) {
+            Collections.shuffle(words, new Random(seed));
+            words.subList(sample, words.size()).clear();
+        }
+
+        long indexStart = System.nanoTime();
+        Simulation simulation = new Simulation(words, dictionary.getWordIndex());
+        System.out.println(String.format("indexed dictionary in %d ms, playing %d words on %d cores",
+                                         (System.nanoTime() - indexStart) / 1_000_000, words.size(), cores));
+
+        // one untimed run first, so the JIT has compiled everything before we start measuring
+        simulation.run(cores);
+
+        SimulationResult result = null;
+        double singleThreadRate = 0;
+        for (int threads : threadCounts) {
+            long start = System.nanoTime();
+            result = simulation.run(threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double gamesPerSecond = result.getGames() / seconds;
+            if (singleThreadRate == 0) { // estimate from the first run if it wasn't on one thread
+                singleThreadRate = gamesPerSecond / threads;
+            }
+            System.out.println(String.format("%3d threads: %,12.0f games/sec  (%.2fx speedup over one thread)",
+                                             threads, gamesPerSecond, gamesPerSecond / singleThreadRate));
+        }
+
+        System.out.println(String.format("%nwin rate: %.2f%%, average wrong guesses: %.3f (of %d allowed)",
+                                         result.getWinRate() * 100, result.getAverageWrongGuesses(),
+                                         AsciiHangman.MAX_WRONG));
+        System.out.println("hardest words:");
+        for (SimulationResult.WordResult word : result.getHardestWords()) {
+            System.out.println(String.format("  %-20s %s with %d wrong guesses", word.getWord(),
+                                             word.isWon() ? "won" : "lost", word.getWrongGuesses()));
+        }
+    }
+
+    // 1, 2, 4, ... up to the number of cores
+    private static String defaultThreadCounts(int cores) {
+        List<String> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(String.valueOf(threads));
+        }
+        counts.add(String.valueOf(cores));
+        return String.join(",", counts);
+    }
+
+    // the value following the given option on the command line, or the default if it's not there
+    private static String option(List<String> options, String name, String defaultValue) {
+        int index = options.indexOf(name);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : defaultValue;
+    }
+}
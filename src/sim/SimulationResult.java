@@ -0,0 +1,106 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The combined outcome of a batch of simulated games. Each worker collects its own SimulationResult, and they're
+ * merged together at the end, so there's nothing shared between threads while the games are being played.
+ */
+public class SimulationResult {
+
+    /** how one word went */
+    public static class WordResult {
+        private final String word;
+        private final int wrongGuesses;
+        private final boolean won;
+
+        WordResult(String word, int wrongGuesses, boolean won) {
+            this.word = word;
+            this.wrongGuesses = wrongGuesses;
+            this.won = won;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getWrongGuesses() {
+            return wrongGuesses;
+        }
+
+        public boolean isWon() {
+            return won;
+        }
+    }
+
+    // losses are harder than wins, then more wrong guesses are harder, then longer words are harder
+    private static final Comparator<WordResult> EASIEST_FIRST =
+            Comparator.comparing(WordResult::isWon, Comparator.reverseOrder())
+                      .thenComparingInt(WordResult::getWrongGuesses)
+                      .thenComparing(result -> result.getWord().length());
+
+    private final int maxHardestWords; // how many of the hardest words to keep track of
+    private final PriorityQueue<WordResult> hardestWords = new PriorityQueue<>(EASIEST_FIRST); // easiest at the head
+    private long games = 0;
+    private long wins = 0;
+    private long wrongGuesses = 0;
+
+    SimulationResult(int maxHardestWords) {
+        this.maxHardestWords = maxHardestWords;
+    }
+
+    /** record the outcome of one game */
+    void add(String word, int wrongGuesses, boolean won) {
+        games++;
+        this.wrongGuesses += wrongGuesses;
+        if (won) {
+            wins++;
+        }
+
+        addHardWord(new WordResult(word, wrongGuesses, won));
+    }
+
+    /** add all of the other result's games to this one, and return this */
+    SimulationResult merge(SimulationResult other) {
+        games += other.games;
+        wins += other.wins;
+        wrongGuesses += other.wrongGuesses;
+        other.hardestWords.forEach(this::addHardWord);
+        return this;
+    }
+
+    private void addHardWord(WordResult result) {
+        hardestWords.add(result);
+        if (hardestWords.size() > maxHardestWords) {
+            hardestWords.poll(); // drop the easiest
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    /** the fraction of games the guesser won */
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /** the average number of wrong guesses per game, for wins and losses */
+    public double getAverageWrongGuesses() {
+        return games == 0 ? 0 : (double) wrongGuesses / games;
+    }
+
+    /** the hardest words for the guesser, hardest first */
+    public List<WordResult> getHardestWords() {
+        List<WordResult> hardest = new ArrayList<>(hardestWords);
+        hardest.sort(EASIEST_FIRST.reversed());
+        return hardest;
+    }
+}
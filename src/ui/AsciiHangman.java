@@ -21,7 +21,7 @@ public class AsciiHangman {
 
     // a map from number of wrong guesses, to the character that will be displayed once we've reached that many wrong guesses
     // for example, if we have at least one wrong guess, we'll replace the 1 in the picture above with O to make the head
-    private static Map<Integer, String> NUM_WRONG_TO_CHAR = Map.of(
+    private static final Map<Integer, String> NUM_WRONG_TO_CHAR = Map.of(
         1, "O",  // head
         2, "|",  // body
         3, "\\", // left arm
@@ -33,14 +33,23 @@ public class AsciiHangman {
     // after this many wrong guesses the picture is complete, and the game is over
     public static final int MAX_WRONG = 6;
 
+    // every frame of the picture, indexed by number of wrong guesses. There are only a handful, so make them all once
+    // up front rather than building one on every turn
+    private static final String[] FRAMES = new String[MAX_WRONG + 1];
+    static {
+        for (int numWrongGuesses = 0; numWrongGuesses <= MAX_WRONG; numWrongGuesses++) {
+            String asciiHangman = ASCII_HANGMAN;
+            for (int i = 1; i <= MAX_WRONG; i++) {
+                // replace the number in the original ascii hangman with either a blank space or the char that builds the person
+                String toReplace = numWrongGuesses < i ? " " : NUM_WRONG_TO_CHAR.get(i);
+                asciiHangman = asciiHangman.replace(String.valueOf(i), toReplace);
+            }
+            FRAMES[numWrongGuesses] = asciiHangman;
+        }
+    }
+
     /** get a version of the ascii hangman with the amount of the person showing depending on the given number of wrong guesses */
     public static String getAsciiHangman(int numWrongGuesses) {
-        String asciiHangman = ASCII_HANGMAN;
-        for (int i = 1; i <= MAX_WRONG; i++) {
-            // replace the number in the original ascii hangman with either a blank space or the char that builds the person
-            String toReplace = numWrongGuesses < i ? " " : NUM_WRONG_TO_CHAR.get(i);
-            asciiHangman = asciiHangman.replace(String.valueOf(i), toReplace);
-        }
-        return asciiHangman;
+        return FRAMES[Math.max(0, Math.min(numWrongGuesses, MAX_WRONG))];
     }
 }
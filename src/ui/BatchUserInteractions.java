@@ -0,0 +1,190 @@
+package ui;
+
+import game.GameStatus;
+import words.Dictionary;
+import words.Letter;
+import words.Phrase;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * A text UI with no one at the keyboard, for playing through a script of games as fast as possible, e.g. recorded or
+ * generated games piped in on stdin. Each game in the script is the same lines a player would type: the phrase to
+ * guess, then one guess per line, with a blank line between games. Lines starting with # are skipped. Any guesses left
+ * over once a game's over are skipped too, and so is a whole game if its phrase isn't valid, so a script doesn't have
+ * to know exactly when each game will end. A game that runs out of guesses before it's over is abandoned (with a
+ * GameAbandonedException), and the script carries on with the next one. There's no need to answer whether to play
+ * again, it carries on for as long as there's more script.
+ *
+ * Nobody's watching, so there are no prompts, no clearing the screen, and no drawing the hangman. The only output is a
+ * line for each game once it's over (the phrase, how it ended, and the number of wrong guesses), or ABANDONED in place
+ * of how it ended if it never finished, plus any complaints about lines in the script that don't parse. Input and
+ * output both go through big buffers, and output is only flushed when the buffer fills or the script ends, so there's
+ * no system call per line either way.
+ */
+public class BatchUserInteractions extends TextUserInteractions {
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private final BufferedReader in;
+    private final Dictionary dictionary;
+    private String nextLine; // the next line of the script, if we've already read ahead to see what it is
+    private boolean atGameStart = true; // whether nothing's been read yet from the game the script is up to
+    private boolean readingPhrase; // whether the line being read is meant to be a phrase, the start of a game
+    private long games;
+    private long abandonedGames;
+    private Phrase phraseToGuess; // the phrase of the game being played, and its wrong guesses so far
+    private int wrongGuesses;
+
+    public BatchUserInteractions(InputStream in, OutputStream out) {
+        super(new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS)),
+              new GameScreen(false, '-'));
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_CHARS);
+        this.dictionary = new Dictionary(this);
+    }
+
+    @Override
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /** whether there's anything left in the script to play, flushing the output once there isn't */
+    public boolean hasMoreGames() {
+        skipToNextGame();
+        if (peekLine() == null) {
+            out.flush();
+            return false;
+        }
+        return true;
+    }
+
+    /** the number of games played to the end so far */
+    public long getGames() {
+        return games;
+    }
+
+    /** the number of games that were abandoned so far, because the script ran out of guesses for them */
+    public long getAbandonedGames() {
+        return abandonedGames;
+    }
+
+    @Override
+    public Phrase getPhraseToGuess() {
+        readingPhrase = true;
+        try {
+            return super.getPhraseToGuess();
+        }
+        finally {
+            readingPhrase = false;
+        }
+    }
+
+    @Override
+    protected String readLine() {
+        if (readingPhrase) {
+            // the phrase is the first line of a game, so skip whatever's left of the last one, or if the last phrase
+            // we read didn't parse, the rest of its game
+            skipToNextGame();
+        }
+        String line = peekLine();
+        if (line == null || line.isBlank()) {
+            // give up on this game, which leaves the script at the start of the next one (or the end) for
+            // hasMoreGames(). Running out while reading a phrase means the last few games' phrases were all invalid
+            if (readingPhrase) {
+                throw new GameAbandonedException("the script ended without another valid phrase");
+            }
+            abandonedGames++;
+            writeResult(phraseToGuess, "ABANDONED", wrongGuesses);
+            throw new GameAbandonedException("game " + (games + abandonedGames) + " ran out of guesses");
+        }
+        nextLine = null;
+        atGameStart = false;
+        return line;
+    }
+
+    // move on to the first line of the next game, skipping anything left of the one the script is up to
+    private void skipToNextGame() {
+        while (!atGameStart && peekLine() != null && !peekLine().isBlank()) {
+            nextLine = null;
+        }
+        while (peekLine() != null && peekLine().isBlank()) {
+            nextLine = null;
+        }
+        atGameStart = true;
+    }
+
+    // the next line that isn't a comment, without using it up, or null at the end of the script
+    private String peekLine() {
+        try {
+            while (nextLine == null) {
+                String line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+                if (!line.startsWith("#")) {
+                    nextLine = line;
+                }
+            }
+            return nextLine;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** keep going for as long as the script has more games */
+    @Override
+    public boolean wantToPlayAgain() {
+        return hasMoreGames();
+    }
+
+    /** only write anything once the game's over, one line with how it went */
+    @Override
+    public void displayGameState(Phrase phraseToGuess,
+                                 Set<Letter> correctlyGuessedLetters,
+                                 Set<Letter> incorrectlyGuessedLetters,
+                                 Set<Phrase> incorrectlyGuessedPhrases,
+                                 GameStatus gameStatus) {
+        this.phraseToGuess = phraseToGuess;
+        wrongGuesses = incorrectlyGuessedLetters.size() + incorrectlyGuessedPhrases.size();
+        if (gameStatus.isGameOver()) {
+            games++;
+            writeResult(phraseToGuess, gameStatus.name(), wrongGuesses);
+        }
+    }
+
+    private void writeResult(Phrase phrase, String outcome, int wrongGuesses) {
+        out.append(phrase.asRawString()).append('\t')
+           .append(outcome).append('\t')
+           .append(String.valueOf(wrongGuesses))
+           .append('\n');
+    }
+
+    /** nobody's there to take a suggestion, and building the index for them takes longer than most scripts do */
+    @Override
+    protected boolean showsSuggestions() {
+        return false;
+    }
+
+    @Override
+    protected void prompt(String prompt) {
+    }
+
+    @Override
+    protected void clearScreen() {
+    }
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+    }
+}
@@ -0,0 +1,85 @@
+package ui;
+
+import bot.FrequencyGuesser;
+import game.GameStatus;
+import game.TurnResult;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * A UserInteractions where the computer is the guessing player. Everything except the guesses is passed through to
+ * another UserInteractions, so e.g. a person on the command line can pick the phrase and watch the computer try to
+ * guess it. The guesses themselves come from a FrequencyGuesser, using the game state from the last call to
+ * displayGameState() (which is only the information the guessing player would see on the screen).
+ */
+public class ComputerGuesserUserInteractions implements UserInteractions {
+
+    private final UserInteractions delegate; // handles everything other than guessing
+    private final Dictionary dictionary; // the words the computer knows about
+    private FrequencyGuesser guesser; // built the first time we need to guess, since it needs all the words loaded
+
+    // the game state as of the last displayGameState() call
+    private Phrase phraseToGuess;
+    private int correctlyGuessedLetters; // LetterMask
+    private int incorrectlyGuessedLetters; // LetterMask
+
+    public ComputerGuesserUserInteractions(UserInteractions delegate, Dictionary dictionary) {
+        this.delegate = delegate;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Phrase getPhraseToGuess() {
+        return delegate.getPhraseToGuess();
+    }
+
+    /** remember the state so we can guess from it, and then show it as normal */
+    @Override
+    public void displayGameState(Phrase phraseToGuess,
+                                 Set<Letter> correctlyGuessedLetters,
+                                 Set<Letter> incorrectlyGuessedLetters,
+                                 Set<Phrase> incorrectlyGuessedPhrases,
+                                 GameStatus gameStatus) {
+        this.phraseToGuess = phraseToGuess;
+        this.correctlyGuessedLetters = LetterMask.of(correctlyGuessedLetters);
+        this.incorrectlyGuessedLetters = LetterMask.of(incorrectlyGuessedLetters);
+        delegate.displayGameState(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
+                                  incorrectlyGuessedPhrases, gameStatus);
+    }
+
+    /** the computer picks a letter to guess */
+    @Override
+    public TurnResult getTurnResult(Set<Letter> availableToGuessLetters) {
+        if (guesser == null) {
+            guesser = new FrequencyGuesser(dictionary.getWordIndex());
+        }
+        return TurnResult.guessedLetter(guesser.nextGuess(phraseToGuess, correctlyGuessedLetters,
+                                                          incorrectlyGuessedLetters));
+    }
+
+    @Override
+    public int getMaxWrongGuesses() {
+        return delegate.getMaxWrongGuesses();
+    }
+
+    @Override
+    public boolean wantToPlayAgain() {
+        return delegate.wantToPlayAgain();
+    }
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        delegate.displayDictionaryLoadedMessage(wordCount, loadTime);
+    }
+
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        delegate.displayDictionaryFailedToLoadMessage(e);
+    }
+}
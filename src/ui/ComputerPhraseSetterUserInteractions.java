@@ -0,0 +1,86 @@
+package ui;
+
+import bot.Difficulty;
+import bot.DifficultyBuckets;
+import game.GameStatus;
+import game.TurnResult;
+import words.Dictionary;
+import words.Letter;
+import words.Phrase;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A UserInteractions where the computer picks the phrase to guess, so one person can play on their own. The phrase is a
+ * random dictionary word of the chosen Difficulty, and everything else is passed through to another UserInteractions.
+ *
+ * Scoring every word for difficulty starts in the background as soon as the dictionary has loaded, so by the time
+ * the first phrase is needed it's usually done, and after that each pick is just a random draw.
+ */
+public class ComputerPhraseSetterUserInteractions implements UserInteractions {
+
+    private final UserInteractions delegate; // handles everything other than picking the phrase
+    private final Difficulty difficulty;
+    private final CompletableFuture<DifficultyBuckets> buckets; // completes once every word has been scored
+    private final Random random;
+
+    public ComputerPhraseSetterUserInteractions(UserInteractions delegate, Dictionary dictionary,
+                                                Difficulty difficulty) {
+        this(delegate, dictionary, difficulty, new Random());
+    }
+
+    /** the same, drawing words from the given Random, e.g. a seeded one for a repeatable series of games */
+    public ComputerPhraseSetterUserInteractions(UserInteractions delegate, Dictionary dictionary,
+                                                Difficulty difficulty, Random random) {
+        this.delegate = delegate;
+        this.difficulty = difficulty;
+        this.buckets = dictionary.whenLoaded().thenApplyAsync(DifficultyBuckets::build);
+        this.random = random;
+    }
+
+    /** the computer picks a word, or if there aren't any (e.g. the dictionary didn't load) a person has to */
+    @Override
+    public Phrase getPhraseToGuess() {
+        Phrase phrase = buckets.join().pick(difficulty, random);
+        return phrase != null ? phrase : delegate.getPhraseToGuess();
+    }
+
+    @Override
+    public void displayGameState(Phrase phraseToGuess,
+                                 Set<Letter> correctlyGuessedLetters,
+                                 Set<Letter> incorrectlyGuessedLetters,
+                                 Set<Phrase> incorrectlyGuessedPhrases,
+                                 GameStatus gameStatus) {
+        delegate.displayGameState(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
+                                  incorrectlyGuessedPhrases, gameStatus);
+    }
+
+    @Override
+    public TurnResult getTurnResult(Set<Letter> availableToGuessLetters) {
+        return delegate.getTurnResult(availableToGuessLetters);
+    }
+
+    @Override
+    public int getMaxWrongGuesses() {
+        return delegate.getMaxWrongGuesses();
+    }
+
+    @Override
+    public boolean wantToPlayAgain() {
+        return delegate.wantToPlayAgain();
+    }
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        delegate.displayDictionaryLoadedMessage(wordCount, loadTime);
+    }
+
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        delegate.displayDictionaryFailedToLoadMessage(e);
+    }
+}
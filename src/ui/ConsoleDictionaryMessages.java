@@ -0,0 +1,21 @@
+package ui;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * DictionaryMessages for programs that don't have a player to show them to (e.g. the simulation or the server), so
+ * they're just printed to the console
+ */
+public class ConsoleDictionaryMessages implements DictionaryMessages {
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        System.out.println(String.format("loaded %d words in %d ms", wordCount, loadTime.toMillis()));
+    }
+
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        System.err.println("dictionary failed to load, every word will be treated as valid:\n" + e);
+    }
+}
@@ -0,0 +1,18 @@
+package ui;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * The messages the Dictionary needs to show while it loads. These are part of UserInteractions, but are split out into
+ * their own interface so things that load a Dictionary without having a player to talk to (e.g. a simulation or a
+ * server) can decide where these messages go without implementing a whole UserInteractions.
+ */
+public interface DictionaryMessages {
+
+    /** let the user know the dictionary finished loading, and how long it took */
+    void displayDictionaryLoadedMessage(int wordCount, Duration loadTime);
+
+    /** show some message to the user to let them know there was a problem loading the dictionary  */
+    void displayDictionaryFailedToLoadMessage(IOException e);
+}
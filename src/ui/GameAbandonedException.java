@@ -0,0 +1,14 @@
+package ui;
+
+/**
+ * Thrown by a UserInteractions when it can't carry on with the game it's in, e.g. a script of games that runs out of
+ * guesses before the game is over. The game is left unfinished, and whatever is playing games can move on to the
+ * next one, if wantToPlayAgain() says there is one.
+ */
+public class GameAbandonedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public GameAbandonedException(String message) {
+        super(message);
+    }
+}
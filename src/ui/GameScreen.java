@@ -0,0 +1,115 @@
+package ui;
+
+import game.GameStatus;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+import words.RevealedPhrase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the text for a whole screen of the game (the hangman, the phrase, and the wrong guesses) in one go, so it can
+ * be written out with a single write and flush rather than a handful of separate prints. The screen is built into the
+ * same buffer every time, so drawing a turn doesn't allocate much of anything.
+ *
+ * If the terminal understands ANSI escape codes, each screen starts by moving the cursor to the top and clearing, so
+ * the game redraws in place. Otherwise (e.g. output piped to a file) each screen is just printed after the last one.
+ *
+ * A GameScreen isn't thread safe, each UI should have its own.
+ */
+public class GameScreen {
+    // move the cursor to the top left, clear the screen, and clear the scrollback so nothing can be scrolled back to
+    private static final String ANSI_CLEAR = "\033[H\033[2J\033[3J";
+
+    // without ANSI, print enough blank lines to push everything off the top of the screen
+    private static final String BLANK_LINES_CLEAR = "\n".repeat(100);
+
+    private static final Letter[] LETTERS = Letter.values();
+
+    private final boolean ansi; // should we use ANSI escape codes to clear the screen?
+    private final char hiddenChar; // displayed instead of a letter that hasn't been guessed yet
+    private final StringBuilder screen = new StringBuilder(512); // reused for every screen
+    private final List<String> wrongPhrases = new ArrayList<>(); // reused for sorting the wrong phrases
+    private RevealedPhrase revealedPhrase; // the phrase as of the last screen
+
+    public GameScreen(boolean ansi, char hiddenChar) {
+        this.ansi = ansi;
+        this.hiddenChar = hiddenChar;
+    }
+
+    /**
+     * does the terminal we're running in understand ANSI escape codes? Only if there's a real console (i.e. output
+     * isn't being piped somewhere) and it's not a dumb terminal. Set the hangman.terminal.ansi system property to
+     * true or false to override this.
+     */
+    public static boolean terminalSupportsAnsi() {
+        String override = System.getProperty("hangman.terminal.ansi");
+        if (override != null) {
+            return Boolean.parseBoolean(override);
+        }
+        return System.console() != null && !"dumb".equals(System.getenv("TERM"));
+    }
+
+    /** the text that clears the screen, to hide anything on it from the other player */
+    public String clear() {
+        return ansi ? ANSI_CLEAR : BLANK_LINES_CLEAR;
+    }
+
+    /**
+     * the text for one whole screen of the game. The returned buffer is reused by the next call, so write it out
+     * before drawing another screen
+     */
+    public CharSequence render(Phrase phraseToGuess,
+                               Set<Letter> correctlyGuessedLetters,
+                               Set<Letter> incorrectlyGuessedLetters,
+                               Set<Phrase> incorrectlyGuessedPhrases,
+                               GameStatus gameStatus) {
+        screen.setLength(0);
+        if (ansi) {
+            screen.append(ANSI_CLEAR);
+        }
+
+        // the hangman frames are all made ahead of time, so this is just a lookup
+        screen.append(AsciiHangman.getAsciiHangman(incorrectlyGuessedLetters.size() + incorrectlyGuessedPhrases.size()))
+              .append('\n');
+
+        // the phrase we're trying to guess, with place holders for letters that aren't guessed yet. Only the letters
+        // guessed since the last screen need to be filled in, unless it's a different game (or the same phrase again)
+        int showLetters = gameStatus.isGameOver() ? LetterMask.ALL : LetterMask.of(correctlyGuessedLetters);
+        if (revealedPhrase == null || !revealedPhrase.isFor(phraseToGuess) ||
+            (revealedPhrase.getRevealedLetters() & ~showLetters) != 0) {
+            revealedPhrase = new RevealedPhrase(phraseToGuess, hiddenChar);
+        }
+        revealedPhrase.reveal(showLetters);
+        revealedPhrase.appendTo(screen).append('\n');
+
+        // remind the user of which letters they've guessed incorrectly, in alphabetical order
+        screen.append("wrong letters:");
+        for (int mask = LetterMask.of(incorrectlyGuessedLetters); mask != 0; mask &= mask - 1) {
+            screen.append(' ').append(LETTERS[Integer.numberOfTrailingZeros(mask)].name());
+        }
+        screen.append('\n');
+
+        // remind the user of which phrases they've guessed incorrectly
+        wrongPhrases.clear();
+        for (Phrase phrase : incorrectlyGuessedPhrases) {
+            wrongPhrases.add(phrase.asRawString());
+        }
+        Collections.sort(wrongPhrases);
+        screen.append("wrong phrases: ");
+        for (int i = 0; i < wrongPhrases.size(); i++) {
+            screen.append(i == 0 ? "'" : ", '").append(wrongPhrases.get(i)).append('\'');
+        }
+        screen.append('\n');
+
+        // if the game is over, let the user know why
+        if (gameStatus.isGameOver()) {
+            screen.append("GAME OVER!!\n\n").append(gameStatus.getDescription().toUpperCase()).append('\n');
+        }
+        return screen;
+    }
+}
@@ -0,0 +1,278 @@
+package ui;
+
+import game.GameStatus;
+import game.TurnResult;
+import bot.LetterHints;
+import leaderboard.Leaderboard;
+import metrics.HangmanMetrics;
+import words.Dictionary;
+import words.Letter;
+import words.LetterMask;
+import words.Phrase;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The parts of a UserInteractions that are the same for any text based UI: the prompts, parsing and validating what the
+ * user types, and drawing the game as text. Subclasses decide where the lines of input come from and where the output
+ * goes, e.g. the command line, or a player connected over the network.
+ *
+ * Output is buffered and flushed once per screen or prompt, so each turn is a single write to wherever it's going.
+ */
+public abstract class TextUserInteractions implements UserInteractions {
+    /** shown when we want the user to enter the phrase to guess */
+    public static final String PHRASE_PROMPT = "enter a word or phrase for the other player to guess:";
+
+    /** shown when we want the user to guess */
+    public static final String GUESS_PROMPT = "guess a letter, or a try to guess the whole phrase (? for a hint):";
+
+    /** typed instead of a guess to get a hint */
+    public static final String HINT_COMMAND = "?";
+
+    /** shown (followed by " (y/n)") after a game ends */
+    public static final String PLAY_AGAIN_QUESTION = "Do you want to play another game?";
+
+    /** shown when we want the user's name, for the leaderboard */
+    public static final String NAME_PROMPT = "enter your name for the leaderboard:";
+
+    protected final PrintWriter out; // buffered output to the user, only flushed once there's something to show
+    private final GameScreen screen; // builds each screen of the game to write out
+    private LetterHints hints; // where hints come from, or null if there aren't any
+
+    // the game as of the last displayGameState() call, for working out hints
+    private Phrase phraseToGuess;
+    private int correctlyGuessedLetters; // LetterMask
+    private int incorrectlyGuessedLetters; // LetterMask
+
+    protected TextUserInteractions(PrintWriter out, GameScreen screen) {
+        this.out = out;
+        this.screen = screen;
+    }
+
+    /** the dictionary this UI uses to validate words */
+    public abstract Dictionary getDictionary();
+
+    /** let the user ask for hints, from the given LetterHints, which can be shared with other UIs */
+    public void setHints(LetterHints hints) {
+        this.hints = hints;
+    }
+
+    /** wait for the next line the user types, and return it */
+    protected abstract String readLine();
+
+    /** show the user some message that isn't part of the game itself */
+    public void showMessage(String message) {
+        out.println(message);
+        out.flush();
+    }
+
+    /**
+     * Get the phrase to guess from the user
+     */
+    @Override
+    public Phrase getPhraseToGuess() {
+        Phrase phrase = parseObjectFromUserInput(PHRASE_PROMPT,
+                                                 this::getPhraseToGuessFromInput);
+        clearScreen(); // get the phrase the user entered off the screen so the guessing player doesn't see it
+        return phrase;
+    }
+
+    // validates that the given input phrase is not empty, consists of valid words, and no invalid characters
+    // if these conditions are not met, then returns null instead of the Phrase
+    private Phrase getPhraseToGuessFromInput(String input) {
+        for (String word : input.split(" ")) {
+            if (!getDictionary().isValidWord(word)) {
+                out.println(String.format("phrase contains invalid word '%s'", word));
+                if (showsSuggestions()) {
+                    List<String> suggestions = getDictionary().suggestionsFor(word);
+                    if (!suggestions.isEmpty()) {
+                        out.println("did you mean: " + String.join(", ", suggestions) + "?");
+                    }
+                }
+                return null;
+            }
+        }
+
+        return phraseFromString(input);
+    }
+
+    // validates that the given input phrase is not empty and contains no invalid characters
+    // if these conditions are not met, then returns null instead of the Phrase
+    private Phrase phraseFromString(String phrase) {
+        int invalidChar = Phrase.indexOfInvalidChar(phrase);
+        if (invalidChar >= 0) {
+            out.println(String.format("'%s' not allowed in phrase, only letters and spaces", phrase.charAt(invalidChar)));
+            return null;
+        }
+
+        // all the chars are fine, so the only way this doesn't give us a Phrase is if there were no letters at all
+        Phrase parsed = Phrase.fromString(phrase);
+        if (parsed == null) {
+            out.println("phrase must contain at least one letter");
+        }
+        return parsed;
+    }
+
+    /**
+     * Prints all relevant game state to the screen to inform user about next guess, or about the end of the game
+     */
+    @Override
+    public void displayGameState(Phrase phraseToGuess,
+                                 Set<Letter> correctlyGuessedLetters,
+                                 Set<Letter> incorrectlyGuessedLetters,
+                                 Set<Phrase> incorrectlyGuessedPhrases,
+                                 GameStatus gameStatus) {
+        this.phraseToGuess = phraseToGuess;
+        this.correctlyGuessedLetters = LetterMask.of(correctlyGuessedLetters);
+        this.incorrectlyGuessedLetters = LetterMask.of(incorrectlyGuessedLetters);
+
+        // build the whole screen and write it out in one go, rather than a print for every line
+        long start = System.nanoTime();
+        out.append(screen.render(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
+                                 incorrectlyGuessedPhrases, gameStatus));
+        out.flush();
+        HangmanMetrics.INSTANCE.renderLatency().record(System.nanoTime() - start);
+    }
+
+    /**
+     * Prompt the user to make a guess at either a single letter or a whole phrase
+     */
+    @Override
+    public TurnResult getTurnResult(Set<Letter> availableToGuessLetters) {
+        return parseObjectFromUserInput(GUESS_PROMPT,
+                                 str -> {
+                                     if (str.equals(HINT_COMMAND)) {
+                                         showHint();
+                                         return null; // a hint isn't a guess, so ask for the guess again
+                                     }
+                                     if (str.length() == 1) { // if they entered a single character, they guessed a letter
+                                         return getGuessedLetter(str, availableToGuessLetters);
+                                     }
+
+                                     // otherwise they must have guessed a whole phrase, use it if it parses into a Phrase
+                                     Phrase phrase = phraseFromString(str);
+                                     return phrase == null ? null : TurnResult.guessedPhrase(phrase);
+                                 });
+    }
+
+    // tell the user which letter we'd guess next
+    private void showHint() {
+        if (hints == null || phraseToGuess == null) {
+            out.println("there are no hints in this game");
+            return;
+        }
+        Letter hint = hints.hintFor(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters);
+        out.println(String.format("hint: try guessing '%s'", hint));
+    }
+
+    // create a TurnResult for guessing a Letter, from the given guessed String and available letters
+    private TurnResult getGuessedLetter(String str, Set<Letter> availableToGuessLetters) {
+        Letter guessedLetter = Letter.lookup(str.charAt(0)); // getTurnResult() only calls this with a single char
+        if (guessedLetter == null) {
+            out.println(String.format("'%s' is not a valid letter", str));
+            return null;
+        }
+
+        // if this letter isn't contained in the available Set, it must have already been guessed
+        if (!availableToGuessLetters.contains(guessedLetter)) {
+            out.println(String.format("'%s' has already been guessed", guessedLetter));
+            return null;
+        }
+
+        // we've got a valid Letter to guess, build the TurnResult from it
+        return TurnResult.guessedLetter(guessedLetter);
+    }
+
+    /** ask the user for the name to put their results under on the leaderboard */
+    public String getPlayerNameFromUser() {
+        return parseObjectFromUserInput(NAME_PROMPT,
+                                        (str) -> {
+                                            String name = str.trim();
+                                            if (!Leaderboard.isValidName(name)) {
+                                                out.println(String.format("a name has to be 1 to %d characters",
+                                                                          Leaderboard.MAX_NAME_LENGTH));
+                                                return null;
+                                            }
+                                            return name;
+                                        });
+    }
+
+    /** The number of wrong guesses until the hangman is fully built and the game is over */
+    @Override
+    public int getMaxWrongGuesses() {
+        return AsciiHangman.MAX_WRONG;
+    }
+
+    /** Get a response from the user for whether they want to play again */
+    @Override
+    public boolean wantToPlayAgain() {
+        return getBooleanFromUser(PLAY_AGAIN_QUESTION);
+    }
+
+    // tells the user to answer the given prompt with (case insensitive) y or n, and turn that into a boolean
+    private boolean getBooleanFromUser(String prompt) {
+        return parseObjectFromUserInput(prompt + " (y/n)",
+                                        (str) -> {
+                                            switch (str.toLowerCase()) {
+                                                case "y":
+                                                    return true;
+                                                case "n":
+                                                    return false;
+                                                default:
+                                                    out.println("reply with either a 'y' or 'n'");
+                                                    return null;
+                                            }
+                                        });
+    }
+
+    // prompt the user for some input, and then use the given parsing function to turn the user response text into
+    // some object. If the parsing fails, it should return null and print some error message, and we'll try repeatedly
+    // until we get some response that successfully parses
+    private <T> T parseObjectFromUserInput(String prompt, Function<String, T> parser) {
+        T result = null;
+        while (result == null) {
+            prompt(prompt);
+            result = parser.apply(readLine());
+        }
+        return result;
+    }
+
+    /**
+     * whether to suggest real words in place of an invalid one. The first suggestion builds the dictionary's whole
+     * suggestion index, so a UI with nobody reading along can turn them off and save that
+     */
+    protected boolean showsSuggestions() {
+        return true;
+    }
+
+    /** ask the user for some input, right before waiting for them to type it */
+    protected void prompt(String prompt) {
+        out.println(prompt);
+        out.flush(); // everything printed since the last prompt goes out together, right before we wait for input
+    }
+
+    /** clear the screen, with an escape code if it understands them or a bunch of blank lines if not */
+    protected void clearScreen() {
+        out.append(screen.clear());
+        out.flush();
+    }
+
+    /** let the user know how long the dictionary took to load */
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        out.println(String.format("(loaded %d words in %d ms)", wordCount, loadTime.toMillis()));
+        out.flush();
+    }
+
+    /** let the user know the dictionary failed to load */
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        out.println("dictionary failed to load, will not validate words:\n" + e);
+        out.flush();
+    }
+}
@@ -0,0 +1,78 @@
+package ui;
+
+import game.GameStatus;
+import game.TurnResult;
+import words.Letter;
+import words.Phrase;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * A UserInteractions for when the two players are each using their own UI, e.g. two people connected to a server.
+ * The phrase comes from the phrase setter, the guesses come from the guesser, and both of them get to see the game.
+ */
+public class TwoPlayerUserInteractions implements UserInteractions {
+
+    private final TextUserInteractions phraseSetter; // picks the phrase
+    private final TextUserInteractions guesser; // tries to guess it
+
+    public TwoPlayerUserInteractions(TextUserInteractions phraseSetter, TextUserInteractions guesser) {
+        this.phraseSetter = phraseSetter;
+        this.guesser = guesser;
+    }
+
+    /** the phrase setter picks the phrase, while the guesser waits */
+    @Override
+    public Phrase getPhraseToGuess() {
+        guesser.showMessage("waiting for the other player to pick a phrase...");
+        return phraseSetter.getPhraseToGuess();
+    }
+
+    /** both players see the game */
+    @Override
+    public void displayGameState(Phrase phraseToGuess,
+                                 Set<Letter> correctlyGuessedLetters,
+                                 Set<Letter> incorrectlyGuessedLetters,
+                                 Set<Phrase> incorrectlyGuessedPhrases,
+                                 GameStatus gameStatus) {
+        phraseSetter.displayGameState(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
+                                      incorrectlyGuessedPhrases, gameStatus);
+        guesser.displayGameState(phraseToGuess, correctlyGuessedLetters, incorrectlyGuessedLetters,
+                                 incorrectlyGuessedPhrases, gameStatus);
+    }
+
+    @Override
+    public TurnResult getTurnResult(Set<Letter> availableToGuessLetters) {
+        return guesser.getTurnResult(availableToGuessLetters);
+    }
+
+    @Override
+    public int getMaxWrongGuesses() {
+        return guesser.getMaxWrongGuesses();
+    }
+
+    /** only play again if both players want to, they both get asked either way */
+    @Override
+    public boolean wantToPlayAgain() {
+        boolean guesserWantsTo = guesser.wantToPlayAgain();
+        boolean phraseSetterWantsTo = phraseSetter.wantToPlayAgain();
+        if (guesserWantsTo != phraseSetterWantsTo) {
+            (guesserWantsTo ? guesser : phraseSetter).showMessage("the other player doesn't want to play again");
+        }
+        return guesserWantsTo && phraseSetterWantsTo;
+    }
+
+    @Override
+    public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        phraseSetter.displayDictionaryLoadedMessage(wordCount, loadTime);
+        guesser.displayDictionaryLoadedMessage(wordCount, loadTime);
+    }
+
+    @Override
+    public void displayDictionaryFailedToLoadMessage(IOException e) {
+        phraseSetter.displayDictionaryFailedToLoadMessage(e);
+        guesser.displayDictionaryFailedToLoadMessage(e);
+    }
+}
@@ -5,7 +5,6 @@ import game.TurnResult;
 import words.Letter;
 import words.Phrase;
 
-import java.io.IOException;
 import java.util.Set;
 
 /**
@@ -22,8 +21,10 @@ import java.util.Set;
  * UI, all we have to do is create a new class that implements this interface, and have the core application logic
  * (in this case the main method in Hangman.java) create the Game using the new UserInteractions implementation.
  * No need to change any game logic to change the UI, since they're not tied together.
+ *
+ * The messages about loading the dictionary are inherited from DictionaryMessages.
  */
-public interface UserInteractions {
+public interface UserInteractions extends DictionaryMessages {
 
     /** get a phrase from one user that the other player will try to guess */
     Phrase getPhraseToGuess();
@@ -47,7 +48,4 @@ public interface UserInteractions {
 
     /** after a game ends, asks the user whether they want to play another game */
     boolean wantToPlayAgain();
-
-    /** show some message to the user to let them know there was a problem loading the dictionary  */
-    void displayDictionaryFailedToLoadMessage(IOException e);
 }
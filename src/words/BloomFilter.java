@@ -0,0 +1,95 @@
+package words;
+
+/**
+ * A Bloom filter over words: a fixed size bit array that can say for sure that a word was never added, or that it
+ * probably was. Each word sets a handful of bits picked by hashing it, and a word can only have been added if all of
+ * its bits are set. Words that weren't added occasionally find all their bits set by other words anyway, which is the
+ * false positive rate, and that's picked up front by choosing how many bits to use per word.
+ *
+ * Words are hashed from String's cached hash code, so checking a word doesn't allocate anything, and usually doesn't
+ * even have to look at its chars.
+ * Adding isn't thread safe, but once it's filled any number of threads can check words at once.
+ */
+public class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private static final long MAX_BITS = 1L << 32; // bit positions are picked from 32 bit hashes
+
+    private final long[] bits;
+    private final long numBits;
+    private final int numHashes; // how many bits each word sets
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.bits = new long[(int) ((Math.min(numBits, MAX_BITS) + 63) / 64)];
+        this.numBits = (long) bits.length * 64;
+        this.numHashes = numHashes;
+    }
+
+    /** a filter sized so that once expectedWords words are added, it has the given false positive rate */
+    public static BloomFilter forExpectedWords(long expectedWords, double falsePositiveRate) {
+        long words = Math.max(1, expectedWords);
+        // the standard sizing: m = -n ln(p) / ln(2)^2 bits, and k = (m / n) ln(2) hashes
+        long numBits = (long) Math.ceil(-words * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int numHashes = (int) Math.max(1, Math.round((double) numBits / words * LN2));
+        return new BloomFilter(Math.max(64, numBits), numHashes);
+    }
+
+    /** add the word to the filter */
+    public void add(String word) {
+        // the two halves of one 64 bit hash are combined to make as many hashes as we need, h1 + i * h2
+        long hash = hash(word);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = bitFor(hash1 + i * hash2);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /** false if the word was definitely never added, true if it probably was */
+    public boolean mightContain(String word) {
+        long hash = hash(word);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) { // most words that weren't added stop after the first bit or two
+            long bit = bitFor(hash1 + i * hash2);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** the number of bytes of bits in the filter */
+    public long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /** the number of bits each word sets */
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /** the false positive rate we'd expect with the given number of words added, (1 - e^(-kn/m))^k */
+    public double expectedFalsePositiveRate(long wordsAdded) {
+        return Math.pow(1 - Math.exp(-(double) numHashes * wordsAdded / numBits), numHashes);
+    }
+
+    // scale a 32 bit hash down to a bit position, with a multiply and shift rather than a much slower remainder
+    private long bitFor(int hash) {
+        return ((hash & 0xFFFFFFFFL) * numBits) >>> 32;
+    }
+
+    // String's own hash code, which is computed by a JDK intrinsic and cached in the String, spread out to 64 bits with
+    // the final mix from MurmurHash3. A 32 bit hash means two words with the same hash code always collide, but that's
+    // only about one word in every 2^32 / (number of words), far less than the false positives the bits give us
+    private static long hash(String word) {
+        long hash = ((long) word.length() << 32) ^ word.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,84 @@
+package words;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A WordStore with a BloomFilter in front of another one. Most words that aren't in the dictionary are turned away by
+ * the filter after a few bit checks, without walking the real store at all, and only words the filter lets through
+ * (the real words, plus the filter's occasional false positive) get looked up for sure.
+ *
+ * This also counts how lookups went, so the false positive rate can be measured on real lookups rather than just
+ * estimated from the filter size.
+ */
+public class BloomFilterWordStore implements WordStore {
+    private final WordStore words; // the exact store, only asked about words that get past the filter
+    private final BloomFilter filter;
+
+    // how lookups have gone, LongAdders since every lookup from every thread updates them
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder rejectedByFilter = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /** put a filter with the given false positive rate in front of the words, which are read once to fill it */
+    public BloomFilterWordStore(WordStore words, double falsePositiveRate) {
+        this.words = words;
+        this.filter = BloomFilter.forExpectedWords(words.size(), falsePositiveRate);
+        words.forEach(filter::add);
+    }
+
+    @Override
+    public boolean contains(String word) {
+        lookups.increment();
+        if (!filter.mightContain(word)) {
+            rejectedByFilter.increment();
+            return false;
+        }
+        boolean contains = words.contains(word);
+        if (!contains) {
+            falsePositives.increment();
+        }
+        return contains;
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    @Override
+    public void forEach(Consumer<String> consumer) {
+        words.forEach(consumer);
+    }
+
+    /** the store behind the filter */
+    public WordStore getWords() {
+        return words;
+    }
+
+    /** the number of bytes the filter takes up */
+    public long getFilterBytes() {
+        return filter.sizeInBytes();
+    }
+
+    /** the false positive rate the filter was sized for, given how many words are in it */
+    public double getExpectedFalsePositiveRate() {
+        return filter.expectedFalsePositiveRate(words.size());
+    }
+
+    /** of the lookups for words that weren't in the store, the fraction the filter wrongly let through */
+    public double getMeasuredFalsePositiveRate() {
+        long negatives = rejectedByFilter.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : (double) falsePositives.sum() / negatives;
+    }
+
+    /** the number of words looked up so far */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /** the number of lookups the filter answered without going to the store */
+    public long getRejectedByFilter() {
+        return rejectedByFilter.sum();
+    }
+}
@@ -0,0 +1,387 @@
+package words;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A WordStore that keeps the words in a DAWG (directed acyclic word graph). This is a trie where identical subtrees
+ * are merged, so words that share an ending (e.g. all the words ending in "ing") also share the nodes for that ending.
+ * For an English word list this ends up with far fewer nodes than words.
+ *
+ * Once built, the graph is packed into two flat buffers with one entry per edge, instead of keeping a node object per
+ * letter. The edges leaving a node are stored next to each other and sorted by label, and each edge points at the
+ * index of the first edge of the node it leads to. This makes the whole dictionary a couple of primitive buffers,
+ * which is a small fraction of the memory a HashSet of Strings needs. The buffers can either wrap arrays on the heap,
+ * or be memory mapped straight from a DictionarySnapshot file.
+ *
+ * Words are stored as their UTF-8 bytes, so any word can be stored, but plain ASCII words are the fast path.
+ */
+public class DawgWordStore implements WordStore {
+
+    // flags packed into the top bits of each target entry, the rest of the bits are the index of the target node
+    static final int LAST_EDGE_FLAG = 1 << 31; // this is the last edge leaving its node
+    static final int END_OF_WORD_FLAG = 1 << 30; // following this edge completes a word
+    static final int TARGET_MASK = END_OF_WORD_FLAG - 1;
+
+    // edge 0 is never used, so a target of 0 means the edge leads to a node with no edges leaving it
+    static final int ROOT = 1;
+
+    private final ByteBuffer labels; // the byte each edge is labelled with
+    private final IntBuffer targets; // the flags and target node for each edge
+    private final int edgeCount; // number of edges, including the unused edge 0
+    private final int[] rootEdges; // the edge leaving the root for each ASCII first letter, or 0 if there isn't one
+    private final int[] prefixEdges; // the same for each ASCII two letter prefix, indexed by (first << 7) | second
+    private final int size; // number of words in the graph
+    private final boolean containsEmptyWord; // the root has no incoming edge to flag, so the empty string is kept here
+
+    DawgWordStore(ByteBuffer labels, IntBuffer targets, int size, boolean containsEmptyWord) {
+        this.labels = labels;
+        this.targets = targets;
+        this.edgeCount = targets.limit();
+        // the nodes near the root are where every lookup starts and have the most edges, so index them directly
+        this.rootEdges = new int[0x80];
+        this.prefixEdges = new int[0x80 * 0x80];
+        indexEdges(labels, targets, ROOT, rootEdges, 0);
+        for (int first = 0; first < rootEdges.length; first++) {
+            if (rootEdges[first] != 0) {
+                indexEdges(labels, targets, targets.get(rootEdges[first]) & TARGET_MASK, prefixEdges, first << 7);
+            }
+        }
+        this.size = size;
+        this.containsEmptyWord = containsEmptyWord;
+    }
+
+    @Override
+    public boolean contains(String word) {
+        int length = word.length();
+        if (length == 0) {
+            return containsEmptyWord;
+        }
+
+        char first = word.charAt(0);
+        if (first >= 0x80) { // not plain ASCII, fall back to walking the UTF-8 bytes
+            return containsBytes(word.getBytes(StandardCharsets.UTF_8));
+        }
+        int edge = rootEdges[first];
+        if (edge == 0) {
+            return false;
+        }
+        if (length == 1) {
+            return (targets.get(edge) & END_OF_WORD_FLAG) != 0;
+        }
+
+        // the first two levels have the widest nodes, so jump straight past them with the two letter prefix table
+        char second = word.charAt(1);
+        if (second >= 0x80) {
+            return containsBytes(word.getBytes(StandardCharsets.UTF_8));
+        }
+        edge = prefixEdges[(first << 7) | second];
+        if (edge == 0) {
+            return false;
+        }
+
+        int target = targets.get(edge);
+        for (int i = 2; i < length; i++) {
+            char c = word.charAt(i);
+            if (c >= 0x80) {
+                return containsBytes(word.getBytes(StandardCharsets.UTF_8));
+            }
+            edge = findEdge(target & TARGET_MASK, c);
+            if (edge < 0) {
+                return false;
+            }
+            target = targets.get(edge);
+        }
+        return (target & END_OF_WORD_FLAG) != 0;
+    }
+
+    // same as contains(), but walks the graph with raw bytes
+    private boolean containsBytes(byte[] word) {
+        int target = edgeCount > ROOT ? ROOT : 0;
+        for (byte b : word) {
+            int edge = findEdge(target & TARGET_MASK, b & 0xFF);
+            if (edge < 0) {
+                return false;
+            }
+            target = targets.get(edge);
+        }
+        return word.length == 0 ? containsEmptyWord : (target & END_OF_WORD_FLAG) != 0;
+    }
+
+    // look through the edges leaving the node that starts at firstEdge for one labelled with the given (unsigned) byte
+    // returns the index of that edge, or -1 if there isn't one
+    private int findEdge(int firstEdge, int label) {
+        if (firstEdge == 0) { // this node has no edges
+            return -1;
+        }
+        for (int edge = firstEdge; ; edge++) {
+            int edgeLabel = labels.get(edge) & 0xFF;
+            if (edgeLabel == label) {
+                return edge;
+            }
+            // edges are sorted, so once we've gone past the label it isn't here
+            if (edgeLabel > label || (targets.get(edge) & LAST_EDGE_FLAG) != 0) {
+                return -1;
+            }
+        }
+    }
+
+    // index the ASCII edges leaving the node that starts at firstEdge by their label, writing them into the given
+    // table starting at offset. Anything that isn't ASCII just goes through containsBytes() instead
+    private static void indexEdges(ByteBuffer labels, IntBuffer targets, int firstEdge, int[] table, int offset) {
+        if (firstEdge == 0 || firstEdge >= targets.limit()) {
+            return;
+        }
+        for (int edge = firstEdge; ; edge++) {
+            byte label = labels.get(edge);
+            if (label >= 0) {
+                table[offset + label] = edge;
+            }
+            if ((targets.get(edge) & LAST_EDGE_FLAG) != 0) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** calls the consumer with every word, in sorted order since that's the order the edges are stored in */
+    @Override
+    public void forEach(Consumer<String> consumer) {
+        if (containsEmptyWord) {
+            consumer.accept("");
+        }
+        if (edgeCount > ROOT) {
+            forEachFrom(ROOT, new byte[16], 0, consumer);
+        }
+    }
+
+    // walk every edge leaving the node that starts at firstEdge, with the bytes of the path to that node in the buffer
+    private void forEachFrom(int firstEdge, byte[] path, int depth, Consumer<String> consumer) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+        }
+        for (int edge = firstEdge; ; edge++) {
+            int target = targets.get(edge);
+            path[depth] = labels.get(edge);
+            if ((target & END_OF_WORD_FLAG) != 0) {
+                consumer.accept(new String(path, 0, depth + 1, StandardCharsets.UTF_8));
+            }
+            if ((target & TARGET_MASK) != 0) {
+                forEachFrom(target & TARGET_MASK, path, depth + 1, consumer);
+            }
+            if ((target & LAST_EDGE_FLAG) != 0) {
+                return;
+            }
+        }
+    }
+
+    /** does this store contain the empty string? The snapshot needs this to save it, since it's not part of the graph */
+    boolean containsEmptyWord() {
+        return containsEmptyWord;
+    }
+
+    /** the edge labels, shared rather than copied */
+    ByteBuffer labels() {
+        return labels.duplicate();
+    }
+
+    /** the edge targets and flags, shared rather than copied */
+    IntBuffer targets() {
+        return targets.duplicate();
+    }
+
+    /**
+     * build a DawgWordStore on the heap from a word list file with one word per line, in any order. The words are
+     * streamed into the builder in byte order, so only the graph itself is ever held in memory, not the whole list
+     */
+    public static DawgWordStore fromFile(Path wordsFile) throws IOException {
+        Builder builder = new Builder();
+        SortedWordReader.forEachSorted(wordsFile, builder::add);
+        return builder.build();
+    }
+
+    /** the number of bytes the graph takes up (on the heap, or mapped from a file), not counting the lookup tables */
+    long graphBytes() {
+        return labels.capacity() + (long) targets.capacity() * Integer.BYTES;
+    }
+
+    /**
+     * Builds a DawgWordStore from words added in sorted order (comparing the UTF-8 bytes as unsigned values).
+     * Adding words in order means we only ever need to keep the path for the last word unminimized, everything else
+     * has already been merged with any identical subtree, so building never needs a full trie in memory.
+     */
+    public static class Builder {
+        private final Map<Node, Node> register = new HashMap<>(); // the canonical copy of every minimized node
+        private final List<Node> uncheckedPath = new ArrayList<>(); // nodes along the last word that aren't minimized yet
+        private final Node root = new Node();
+        private byte[] previousWord = new byte[0];
+        private int size = 0;
+        private boolean containsEmptyWord = false;
+
+        /** add the next word, which must not sort before the previously added word */
+        public Builder add(String word) {
+            return add(word.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** add the next word as UTF-8 bytes, which must not sort before the previously added word */
+        public Builder add(byte[] word) {
+            int cmp = Arrays.compareUnsigned(word, previousWord);
+            if (cmp < 0) {
+                throw new IllegalArgumentException("words must be added in sorted order: " +
+                                                   new String(word, StandardCharsets.UTF_8));
+            }
+            if (cmp == 0 && size > 0) { // ignore duplicates
+                return this;
+            }
+            if (word.length == 0) { // the empty string can only come first, and there's no edge to mark it on
+                containsEmptyWord = true;
+                size++;
+                return this;
+            }
+
+            int commonPrefix = Arrays.mismatch(word, previousWord);
+            if (commonPrefix < 0) {
+                commonPrefix = word.length;
+            }
+
+            // the rest of the previous word's path can't change anymore, so merge it with the register
+            minimize(commonPrefix);
+
+            // add the new suffix as a fresh chain of nodes
+            Node node = uncheckedPath.isEmpty() ? root : uncheckedPath.get(uncheckedPath.size() - 1);
+            for (int i = commonPrefix; i < word.length; i++) {
+                Node child = new Node();
+                node.addChild(word[i], child);
+                uncheckedPath.add(child);
+                node = child;
+            }
+            node.endOfWord = true;
+
+            previousWord = word;
+            size++;
+            return this;
+        }
+
+        /** finish building, and pack the graph into flat arrays */
+        public DawgWordStore build() {
+            minimize(0);
+
+            // give every unique node a contiguous block of edges, root first. Nodes are laid out depth first so a
+            // lookup mostly moves forward through the arrays instead of jumping all over them
+            Map<Node, Integer> firstEdges = new IdentityHashMap<>();
+            List<Node> order = new ArrayList<>();
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.push(root);
+            int edgeCount = ROOT;
+            while (!toVisit.isEmpty()) {
+                Node node = toVisit.pop();
+                if (node.childCount == 0 || firstEdges.containsKey(node)) {
+                    continue;
+                }
+                firstEdges.put(node, edgeCount);
+                order.add(node);
+                edgeCount += node.childCount;
+                for (int i = node.childCount - 1; i >= 0; i--) {
+                    toVisit.push(node.children[i]);
+                }
+            }
+            if (edgeCount > TARGET_MASK) {
+                throw new IllegalStateException("too many edges to pack into a DAWG: " + edgeCount);
+            }
+
+            byte[] labels = new byte[edgeCount];
+            int[] targets = new int[edgeCount];
+            for (Node node : order) {
+                int firstEdge = firstEdges.get(node);
+                for (int i = 0; i < node.childCount; i++) {
+                    Node child = node.children[i];
+                    int target = child.childCount > 0 ? firstEdges.get(child) : 0;
+                    if (child.endOfWord) {
+                        target |= END_OF_WORD_FLAG;
+                    }
+                    if (i == node.childCount - 1) {
+                        target |= LAST_EDGE_FLAG;
+                    }
+                    labels[firstEdge + i] = node.labels[i];
+                    targets[firstEdge + i] = target;
+                }
+            }
+            return new DawgWordStore(ByteBuffer.wrap(labels), IntBuffer.wrap(targets), size, containsEmptyWord);
+        }
+
+        // replace every unchecked node deeper than the given depth with its canonical copy from the register
+        private void minimize(int downTo) {
+            for (int i = uncheckedPath.size() - 1; i >= downTo; i--) {
+                Node parent = i == 0 ? root : uncheckedPath.get(i - 1);
+                Node child = uncheckedPath.remove(i);
+                Node existing = register.putIfAbsent(child, child);
+                if (existing != null) {
+                    parent.children[parent.childCount - 1] = existing;
+                }
+            }
+        }
+    }
+
+    // a node in the graph while it's being built. Two nodes are equal if they have the same labels leading to the same
+    // (already minimized) children, which is what lets us find identical subtrees in the register
+    private static class Node {
+        private byte[] labels = new byte[2];
+        private Node[] children = new Node[2];
+        private int childCount = 0;
+        private boolean endOfWord = false;
+
+        private void addChild(byte label, Node child) {
+            if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            labels[childCount] = label;
+            children[childCount] = child;
+            childCount++;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) {
+                return false;
+            }
+            Node other = (Node) o;
+            if (endOfWord != other.endOfWord || childCount != other.childCount) {
+                return false;
+            }
+            for (int i = 0; i < childCount; i++) {
+                // children are already canonical, so comparing them by identity is enough
+                if (labels[i] != other.labels[i] || children[i] != other.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = endOfWord ? 1 : 0;
+            for (int i = 0; i < childCount; i++) {
+                hash = 31 * hash + labels[i];
+                hash = 31 * hash + System.identityHashCode(children[i]);
+            }
+            return hash;
+        }
+    }
+}
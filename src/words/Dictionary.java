@@ -1,37 +1,338 @@
 package words;
 
-import ui.UserInteractions;
+import metrics.HangmanMetrics;
+import ui.DictionaryMessages;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
 import java.util.Collections;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * This class handles reading in a list of all valid words from a file and keeping them in a Set so we can
- * quickly look up whether a String is a real word
+ * This class handles reading in a list of all valid words from a file and keeping them in a WordStore so we can
+ * quickly look up whether a String is a real word. The words are loaded on a background thread, so creating a
+ * Dictionary returns right away, and only checking a word before the load has finished has to wait for it.
+ *
+ * The DAWG storages stream the word list in rather than reading it all at once, so even huge lists load in bounded
+ * memory. A Bloom filter can go in front of whichever storage is used, to turn away most invalid words cheaply, but
+ * it's off unless the hangman.dictionary.bloomFilterRate property asks for one: building it means decoding every word
+ * into a String, which takes longer than mapping a snapshot does, and the storages are nearly as quick to say no
+ * (see DictionaryReport).
+ *
+ * Words can also be looked up by pattern, e.g. every word matching "c-t", from a WordIndex that's built straight after
+ * the words load.
+ *
+ * For words that aren't valid, suggestionsFor() finds close real words to suggest. The index behind that is much bigger
+ * than the words themselves and takes a while to build, so it's only built once something first asks for suggestions.
+ *
+ * The word list is words_en.txt unless the hangman.dictionary.file system property says otherwise. With the
+ * hangman.dictionary.watch property set, the file is watched for changes, and whenever it changes the words are loaded
+ * again on the watcher's thread. The words, the WordIndex built from them and the suggester all live together in one
+ * Words object, and a reload builds a whole new one and swaps it in with a single volatile write. So lookups never
+ * wait on a reload, and every lookup sees either all of the old words or all of the new ones. If the reload fails, the
+ * old words stay and the UI is told why. Anything that was built from the words once, like EvilHangman's word groups
+ * or DifficultyBuckets, keeps using the words it was built from. LetterHints asks for the WordIndex every time, so its
+ * hints move on to the new words.
  */
 public class Dictionary {
-    private static final String DICTIONARY_FILE = "words_en.txt";
+    static final String DICTIONARY_FILE = "words_en.txt";
 
-    private Set<String> validWords;
+    // system property for the word list to load, e.g. -Dhangman.dictionary.file=/usr/share/dict/words
+    private static final String FILE_PROPERTY = "hangman.dictionary.file";
 
-    /** create the dictionary by loading words from the file */
-    public Dictionary(UserInteractions ui) {
+    // system property to reload the word list whenever it changes, e.g. -Dhangman.dictionary.watch=true
+    private static final String WATCH_PROPERTY = "hangman.dictionary.watch";
+
+    // saving the file can change it a few times in a row, so wait for it to go quiet this long before reloading
+    private static final long RELOAD_QUIET_MILLIS = 500;
+
+    // system property that picks which kind of WordStore to use, e.g. -Dhangman.dictionary.storage=HASH_SET
+    private static final String STORAGE_PROPERTY = "hangman.dictionary.storage";
+
+    // system property for the false positive rate of the Bloom filter in front of the words, e.g. 0.01. 0 for no filter
+    private static final String BLOOM_FILTER_PROPERTY = "hangman.dictionary.bloomFilterRate";
+    private static final double DEFAULT_BLOOM_FILTER_RATE = 0;
+
+    /** the different data structures we can keep the words in */
+    public enum Storage {
+        HASH_SET, // a plain Set of Strings, fast but uses a lot of memory, and the whole list is read in at once
+        DAWG,     // a compact word graph packed into arrays, a fraction of the memory, streamed in from the file
+        MAPPED    // the same word graph, memory mapped from a precompiled snapshot file so there's nothing to load
+    }
+
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private final Path wordsFile;
+    private final Storage storage;
+    private final DictionaryMessages ui;
+    private volatile Words words; // the words currently in use, replaced all at once by a reload
+
+    // one version of the word list, and everything built from it
+    private static final class Words {
+        private final CompletableFuture<WordStore> store; // completes once the words are loaded
+        private final CompletableFuture<WordIndex> index; // built straight after the words load
+        private volatile SpellingSuggester suggester; // only built the first time someone asks for suggestions
+
+        private Words(CompletableFuture<WordStore> store) {
+            this.store = store;
+            this.index = store.thenApply(WordIndex::build);
+        }
+
+        // build the suggester if no one has yet, making sure only one thread does it
+        private SpellingSuggester suggester() {
+            SpellingSuggester built = suggester;
+            if (built == null) {
+                synchronized (this) {
+                    built = suggester;
+                    if (built == null) {
+                        built = SpellingSuggester.build(store.join());
+                        suggester = built;
+                    }
+                }
+            }
+            return built;
+        }
+    }
+
+    /** create the dictionary by loading words from the file, using the storage picked by the system property */
+    public Dictionary(DictionaryMessages ui) {
+        this(ui, Storage.valueOf(System.getProperty(STORAGE_PROPERTY, Storage.MAPPED.name())));
+    }
+
+    /** create the dictionary and start loading words from the file into the given kind of storage */
+    public Dictionary(DictionaryMessages ui, Storage storage) {
+        this(ui, storage, Paths.get(System.getProperty(FILE_PROPERTY, DICTIONARY_FILE)),
+             Boolean.getBoolean(WATCH_PROPERTY));
+    }
+
+    /**
+     * create the dictionary and start loading words from the given file into the given kind of storage, loading them
+     * again whenever the file changes if watch is true
+     */
+    public Dictionary(DictionaryMessages ui, Storage storage, Path wordsFile, boolean watch) {
+        this.wordsFile = wordsFile;
+        this.storage = storage;
+        this.ui = ui;
+        this.words = new Words(CompletableFuture.supplyAsync(this::firstLoad, Dictionary::startLoaderThread));
+        if (watch) {
+            startWatcherThread();
+        }
+    }
+
+    // runs on the loader thread. If the words can't be loaded, carry on with none, which makes every word valid
+    private WordStore firstLoad() {
+        long start = System.nanoTime();
         try {
-            validWords = Files.lines(Paths.get(DICTIONARY_FILE)).collect(Collectors.toSet());
+            WordStore loaded = loadWords();
+            reportLoaded(loaded, System.nanoTime() - start);
+            return loaded;
         }
         catch (IOException e) {
-            // don't want to assume errors are printed to command line, so let UI decide how to display the error
-            ui.displayDictionaryFailedToLoadMessage(e);
-            validWords = Collections.emptySet();
+            reportFailure(e);
+            return new HashSetWordStore(Collections.emptySet());
+        }
+    }
+
+    // load the words from the file, with a Bloom filter in front of them if one was asked for. Anything that goes
+    // wrong comes out as an IOException, so the UI hears about it and the words fall back the same way whatever it was
+    private WordStore loadWords() throws IOException {
+        try {
+            return withBloomFilter(load(wordsFile, storage));
+        }
+        catch (UncheckedIOException e) { // reading lines from a stream wraps any problems, e.g. a badly encoded file
+            throw e.getCause();
+        }
+        catch (RuntimeException e) { // e.g. a damaged snapshot, or a word a store can't take
+            throw new IOException("couldn't load the words from " + wordsFile + ": " + e, e);
         }
     }
 
-    /** return whether the given word is valid. If the dictionary failed to load all words are assumed to be valid */
+    private void reportLoaded(WordStore loaded, long loadNanos) {
+        HangmanMetrics.INSTANCE.dictionaryLoaded(loaded.size(), loadNanos);
+        ui.displayDictionaryLoadedMessage(loaded.size(), Duration.ofNanos(loadNanos));
+    }
+
+    // don't want to assume errors are printed to command line, so let UI decide how to display the error
+    private void reportFailure(IOException e) {
+        HangmanMetrics.INSTANCE.dictionaryFailedToLoad();
+        ui.displayDictionaryFailedToLoadMessage(e);
+    }
+
+    /**
+     * load the words from the file again, and swap them in for the ones in use once they (and their WordIndex) are
+     * ready. If they can't be loaded, the UI is told, and the words in use stay as they are. Returns whether it worked
+     */
+    public boolean reload() {
+        long start = System.nanoTime();
+        WordStore loaded;
+        try {
+            loaded = loadWords();
+            if (loaded.size() == 0) { // most likely caught half way through being written, the next change will fix it
+                throw new IOException(wordsFile + " doesn't have any words in it");
+            }
+        }
+        catch (IOException e) {
+            reportFailure(e);
+            return false;
+        }
+        Words reloaded = new Words(CompletableFuture.completedFuture(loaded));
+        reloaded.index.join(); // build it before the swap, rather than on whichever lookup needs it first
+        words = reloaded;
+        reportLoaded(loaded, System.nanoTime() - start);
+        return true;
+    }
+
+    // watch the word list's directory on a daemon thread, reloading whenever the file changes
+    private void startWatcherThread() {
+        WatchService watcher;
+        Path directory = wordsFile.toAbsolutePath().getParent();
+        try {
+            watcher = directory.getFileSystem().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        catch (IOException e) {
+            reportFailure(e); // the words still load, they just won't be reloaded
+            return;
+        }
+        Thread thread = new Thread(() -> watch(watcher), "dictionary-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // runs on the watcher thread until it's interrupted
+    private void watch(WatchService watcher) {
+        Path fileName = wordsFile.getFileName();
+        try (watcher) {
+            while (true) {
+                if (changed(watcher.take(), fileName)) {
+                    // wait for things to go quiet, so a file that's still being written isn't loaded half way through
+                    WatchKey more;
+                    while ((more = watcher.poll(RELOAD_QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        changed(more, fileName);
+                    }
+                    words.store.join(); // the first load has to be done first, or it could finish after this one
+                    reload();
+                }
+            }
+        }
+        catch (InterruptedException | IOException e) {
+            // stop watching
+        }
+    }
+
+    // whether any of the key's events were for the given file. Takes the events, and gets the key ready for more
+    private static boolean changed(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // OVERFLOW means some events were lost, which could have been ours
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+        }
+        key.reset();
+        return changed;
+    }
+
+    // a daemon thread, so a slow load never keeps the program from exiting
+    private static void startLoaderThread(Runnable load) {
+        Thread thread = new Thread(load, "dictionary-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // put a Bloom filter in front of the words, unless it's turned off or there aren't any words
+    private static WordStore withBloomFilter(WordStore words) {
+        double falsePositiveRate = Double.parseDouble(System.getProperty(BLOOM_FILTER_PROPERTY,
+                                                                         String.valueOf(DEFAULT_BLOOM_FILTER_RATE)));
+        if (falsePositiveRate <= 0 || words.size() == 0) {
+            return words;
+        }
+        return new BloomFilterWordStore(words, falsePositiveRate);
+    }
+
+    // read all the words into the given kind of storage
+    static WordStore load(Path wordsFile, Storage storage) throws IOException {
+        switch (storage) {
+            case HASH_SET:
+                try (Stream<String> lines = Files.lines(wordsFile)) {
+                    return new HashSetWordStore(lines.collect(Collectors.toSet()));
+                }
+            case DAWG:
+                return DawgWordStore.fromFile(wordsFile);
+            case MAPPED:
+                try {
+                    return DictionarySnapshot.openOrCompile(wordsFile);
+                }
+                catch (IOException e) {
+                    // most likely we couldn't write the snapshot next to the word list, so just build it on the heap
+                    return DawgWordStore.fromFile(wordsFile);
+                }
+            default:
+                throw new IllegalArgumentException("unknown dictionary storage: " + storage);
+        }
+    }
+
+    /** a future that completes with this dictionary once all of its words are loaded */
+    public CompletableFuture<Dictionary> whenLoaded() {
+        return words.store.thenApply(loaded -> this);
+    }
+
+    /** call the given consumer with every word in the dictionary, waiting for the words to finish loading first */
+    public void forEachWord(Consumer<String> consumer) {
+        words.store.join().forEach(consumer);
+    }
+
+    /**
+     * return whether the given word is valid, waiting for the words to finish loading if they haven't yet.
+     * If the dictionary failed to load all words are assumed to be valid
+     */
     public boolean isValidWord(String word) {
-        return validWords.isEmpty() || validWords.contains(word);
+        WordStore store = words.store.join();
+        boolean timed = HangmanMetrics.sampleLatency();
+        long start = timed ? System.nanoTime() : 0;
+        boolean valid = store.size() == 0 || store.contains(word);
+        if (timed) {
+            HangmanMetrics.INSTANCE.wordLookupLatency().record(System.nanoTime() - start);
+        }
+        HangmanMetrics.INSTANCE.wordLookedUp(valid);
+        return valid;
+    }
+
+    /** the index of words by the letter at each position, waiting for it to be built if it hasn't been yet */
+    public WordIndex getWordIndex() {
+        return words.index.join();
+    }
+
+    /**
+     * the number of words matching the given pattern, where WordIndex.WILDCARD can be any letter except the excluded
+     * ones (a LetterMask), e.g. "c-t" with A excluded matches "cut" but not "cat".
+     * throws IllegalArgumentException if the pattern has anything other than letters and wildcards in it
+     */
+    public int countMatching(String pattern, int excludedLetters) {
+        return getWordIndex().count(pattern, excludedLetters);
+    }
+
+    /** the words matching the given pattern, as for countMatching(), made as the stream gets to them */
+    public Stream<String> wordsMatching(String pattern, int excludedLetters) {
+        return getWordIndex().matching(pattern, excludedLetters);
+    }
+
+    /**
+     * up to a handful of dictionary words that are a small typo away from the given word, closest first, for suggesting
+     * when the word isn't valid. The first call builds the index these come from, so it's slow, later calls are quick
+     */
+    public List<String> suggestionsFor(String word) {
+        return words.suggester().suggestionsFor(word, MAX_SUGGESTIONS);
     }
 }
@@ -0,0 +1,145 @@
+package words;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads a word list and reports what it costs: how long the load took, how much heap the words take up, and how the
+ * Bloom filter in front of them does. The filter's false positive rate is measured by looking up lots of random
+ * strings that aren't words, and comparing how many it let through to the rate it was sized for.
+ *
+ * Run from the command line:
+ * java words.DictionaryReport [word list] [--storage DAWG] [--rate 0.01] [--probes 1000000] [--seed 1]
+ */
+public class DictionaryReport {
+
+    public static void main(String[] args) throws IOException {
+        List<String> options = Arrays.asList(args);
+        Path wordsFile = Paths.get(args.length > 0 && !args[0].startsWith("--") ? args[0] : Dictionary.DICTIONARY_FILE);
+        Dictionary.Storage storage = Dictionary.Storage.valueOf(option(options, "--storage", "DAWG"));
+        double rate = Double.parseDouble(option(options, "--rate", "0.01"));
+        int probes = Integer.parseInt(option(options, "--probes", "1000000"));
+        Random random = new Random(Long.parseLong(option(options, "--seed", "1")));
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        WordStore words = Dictionary.load(wordsFile, storage);
+        long loaded = System.nanoTime();
+        long heapAfter = usedHeap();
+        BloomFilterWordStore filtered = new BloomFilterWordStore(words, rate);
+        long filterBuilt = System.nanoTime();
+
+        System.out.println(String.format("%,d words from %s as %s", words.size(), wordsFile, storage));
+        System.out.println(String.format("  loaded in %d ms, bloom filter built in %d ms", (loaded - start) / 1_000_000,
+                                         (filterBuilt - loaded) / 1_000_000));
+        System.out.println(String.format("  heap used by the words: %,d bytes", heapAfter - heapBefore));
+        if (words instanceof DawgWordStore) {
+            System.out.println(String.format("  word graph: %,d bytes%s", ((DawgWordStore) words).graphBytes(),
+                                             storage == Dictionary.Storage.MAPPED ? " (memory mapped, off the heap)"
+                                                                                  : ""));
+        }
+        System.out.println(String.format("  bloom filter: %,d bytes (%.1f bits per word)", filtered.getFilterBytes(),
+                                         filtered.getFilterBytes() * 8.0 / Math.max(1, words.size())));
+
+        // every real word has to get through the filter, a Bloom filter never has false negatives
+        long[] missing = {0};
+        words.forEach(word -> {
+            if (!filtered.contains(word)) {
+                missing[0]++;
+            }
+        });
+        if (missing[0] > 0) {
+            System.out.println(String.format("  ERROR: %d words in the list were not found", missing[0]));
+        }
+
+        // look up strings that aren't words, timing them with and without the filter
+        report("random strings", randomNonWords(words, probes, random), words, filtered);
+        report("typos of real words", typos(words, probes, random), words, filtered);
+        System.out.println(String.format("  false positive rate: %.4f%% measured, %.4f%% expected (sized for %.4f%%)",
+                                         filtered.getMeasuredFalsePositiveRate() * 100,
+                                         filtered.getExpectedFalsePositiveRate() * 100, rate * 100));
+    }
+
+    // time looking up the non-words with and without the filter
+    private static void report(String description, String[] nonWords, WordStore words, BloomFilterWordStore filtered) {
+        long rejected = 0;
+        long filterTime = 0;
+        long exactTime = 0;
+        for (int round = 0; round < 3; round++) { // keep the last round, so both have been through the JIT
+            long rejectedBefore = filtered.getRejectedByFilter();
+            long filterStart = System.nanoTime();
+            for (String nonWord : nonWords) {
+                filtered.contains(nonWord);
+            }
+            filterTime = System.nanoTime() - filterStart;
+            rejected = filtered.getRejectedByFilter() - rejectedBefore;
+
+            long exactStart = System.nanoTime();
+            for (String nonWord : nonWords) {
+                words.contains(nonWord);
+            }
+            exactTime = System.nanoTime() - exactStart;
+        }
+
+        System.out.println(String.format("  %,d %s: %,d rejected by the filter, %.1f ns per lookup with the " +
+                                         "filter, %.1f ns without", nonWords.length, description, rejected,
+                                         (double) filterTime / nonWords.length, (double) exactTime / nonWords.length));
+    }
+
+    // random lower case strings, about as long as real words, that aren't in the store
+    private static String[] randomNonWords(WordStore words, int count, Random random) {
+        String[] nonWords = new String[count];
+        char[] chars = new char[16];
+        for (int i = 0; i < count; ) {
+            int length = 3 + random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            String candidate = new String(chars, 0, length);
+            if (!words.contains(candidate)) {
+                nonWords[i++] = candidate;
+            }
+        }
+        return nonWords;
+    }
+
+    // real words with one letter changed, which get a lot further into the store before they're turned away
+    private static String[] typos(WordStore words, int count, Random random) {
+        List<String> realWords = new ArrayList<>(words.size());
+        words.forEach(word -> {
+            if (word.length() >= 3) {
+                realWords.add(word);
+            }
+        });
+        String[] typos = new String[count];
+        for (int i = 0; i < count; ) {
+            char[] chars = realWords.get(random.nextInt(realWords.size())).toCharArray();
+            chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+            String candidate = new String(chars);
+            if (!words.contains(candidate)) {
+                typos[i++] = candidate;
+            }
+        }
+        return typos;
+    }
+
+    // the heap in use after a GC, roughly
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // the value following the given option on the command line, or the default if it's not there
+    private static String option(List<String> options, String name, String defaultValue) {
+        int index = options.indexOf(name);
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : defaultValue;
+    }
+}
@@ -0,0 +1,191 @@
+package words;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compiles a word list into a binary snapshot of its DAWG, and opens those snapshots again by memory mapping them.
+ * Opening a snapshot doesn't read or parse any words, the DawgWordStore just runs its lookups straight against the
+ * mapped bytes. So startup only costs mapping the file, and every process on the machine that opens the same snapshot
+ * shares the same pages through the OS page cache instead of each building its own copy on the heap.
+ *
+ * The file layout is a fixed size header followed by the edge targets (one int each) and then the edge labels
+ * (one byte each), all little endian:
+ *
+ *   int magic, int version, int flags, int word count, int edge count, 4 bytes of padding,
+ *   long word list size, long word list last modified time (ms), then padding up to HEADER_SIZE bytes
+ *
+ * Run the main method to compile a snapshot by hand, e.g. as part of a deploy. The Dictionary also recompiles the
+ * snapshot itself whenever it's missing, from an older version, or wasn't compiled from the word list as it is now.
+ * That goes by the word list's size and last modified time when the snapshot was compiled, rather than which file is
+ * newer, since moving an older file into place (mv, cp -p, rsync -t, unpacking a tar) replaces the word list without
+ * making it any newer than the snapshot. A snapshot whose header checks out but which turns out to be damaged when
+ * it's opened is compiled again too, once.
+ */
+public class DictionarySnapshot {
+    private static final int MAGIC = 0x48474d44; // "HGMD"
+    private static final int VERSION = 2;        // bump whenever the layout changes, so old snapshots get recompiled
+    private static final int HEADER_SIZE = 48;
+    private static final int SOURCE_SIZE_OFFSET = 24;
+    private static final int SOURCE_MODIFIED_OFFSET = 32;
+
+    private static final int CONTAINS_EMPTY_WORD_FLAG = 1;
+
+    private static final String SNAPSHOT_EXTENSION = ".dawg";
+
+    /** the snapshot file that goes with the given word list, e.g. words_en.txt -> words_en.dawg */
+    public static Path snapshotFileFor(Path wordsFile) {
+        String name = wordsFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return wordsFile.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * open the snapshot for the given word list, first compiling it if it's missing, stale or from another version
+     * of this class, or compiling it again if it's damaged
+     */
+    public static DawgWordStore openOrCompile(Path wordsFile) throws IOException {
+        Path snapshotFile = snapshotFileFor(wordsFile);
+        if (isUpToDate(wordsFile, snapshotFile)) {
+            try {
+                return open(snapshotFile);
+            }
+            catch (IOException e) {
+                // only the header was checked, and the rest of it is damaged, so compile it again the same as if it
+                // were stale. If the new one won't open either, that's an error for the caller
+            }
+        }
+        compile(wordsFile, snapshotFile);
+        return open(snapshotFile);
+    }
+
+    // a snapshot is usable if it exists, has our magic number and version, and was compiled from a word list of the
+    // same size and last modified time as the one that's there now
+    private static boolean isUpToDate(Path wordsFile, Path snapshotFile) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is full or we hit the end of the file
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                   && header.getLong(SOURCE_SIZE_OFFSET) == Files.size(wordsFile)
+                   && header.getLong(SOURCE_MODIFIED_OFFSET) == Files.getLastModifiedTime(wordsFile).toMillis();
+        }
+    }
+
+    /** build a DAWG from the given word list, and write it out as a snapshot file */
+    public static void compile(Path wordsFile, Path snapshotFile) throws IOException {
+        // taken before the words are read, so if the list changes while they're being read the snapshot is stale
+        long sourceSize = Files.size(wordsFile);
+        long sourceModified = Files.getLastModifiedTime(wordsFile).toMillis();
+        write(DawgWordStore.fromFile(wordsFile), snapshotFile, sourceSize, sourceModified);
+    }
+
+    // write the store out next to the snapshot, and then move it into place so other processes never see half a file
+    private static void write(DawgWordStore store, Path snapshotFile, long sourceSize, long sourceModified)
+            throws IOException {
+        IntBuffer targets = store.targets();
+        ByteBuffer labels = store.labels();
+        int edgeCount = targets.limit();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + edgeCount * Integer.BYTES + edgeCount)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+              .putInt(VERSION)
+              .putInt(store.containsEmptyWord() ? CONTAINS_EMPTY_WORD_FLAG : 0)
+              .putInt(store.size())
+              .putInt(edgeCount)
+              .putLong(SOURCE_SIZE_OFFSET, sourceSize)
+              .putLong(SOURCE_MODIFIED_OFFSET, sourceModified)
+              .position(HEADER_SIZE);
+        for (int i = 0; i < edgeCount; i++) {
+            buffer.putInt(targets.get(i));
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            buffer.put(labels.get(i));
+        }
+        buffer.flip();
+
+        // not using Files.createTempFile, since it makes the file private to this user and other users' processes
+        // should be able to share the snapshot too
+        String tempName = snapshotFile.getFileName() + "." + ProcessHandle.current().pid() + ".tmp";
+        Path tempFile = snapshotFile.resolveSibling(tempName);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /** memory map the given snapshot file, and return a store that does its lookups directly on the mapped bytes */
+    public static DawgWordStore open(Path snapshotFile) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+            throw new IOException("not a dictionary snapshot: " + snapshotFile);
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException(String.format("dictionary snapshot %s is version %d, expected %d",
+                                                snapshotFile, mapped.getInt(4), VERSION));
+        }
+        int flags = mapped.getInt(8);
+        int size = mapped.getInt(12);
+        int edgeCount = mapped.getInt(16);
+        // worked out in a long, since a damaged edge count can be big enough to overflow an int back into range
+        if (edgeCount < 0 || HEADER_SIZE + (long) edgeCount * (Integer.BYTES + Byte.BYTES) != mapped.limit()) {
+            throw new IOException(String.format("dictionary snapshot %s is damaged: %d edges don't fit in %d bytes",
+                                                snapshotFile, edgeCount, mapped.limit()));
+        }
+        int labelsStart = HEADER_SIZE + edgeCount * Integer.BYTES; // fits now it's known to be inside the file
+
+        IntBuffer targets = mapped.slice(HEADER_SIZE, edgeCount * Integer.BYTES)
+                                  .order(ByteOrder.LITTLE_ENDIAN)
+                                  .asIntBuffer();
+        ByteBuffer labels = mapped.slice(labelsStart, edgeCount);
+        try {
+            return new DawgWordStore(labels, targets, size, (flags & CONTAINS_EMPTY_WORD_FLAG) != 0);
+        }
+        catch (IndexOutOfBoundsException e) { // indexing the first edges followed a target off the end
+            throw new IOException("dictionary snapshot " + snapshotFile + " is damaged", e);
+        }
+    }
+
+    /** compile a snapshot from the command line: java words.DictionarySnapshot [word list] [snapshot file] */
+    public static void main(String[] args) throws IOException {
+        Path wordsFile = Paths.get(args.length > 0 ? args[0] : Dictionary.DICTIONARY_FILE);
+        Path snapshotFile = args.length > 1 ? Paths.get(args[1]) : snapshotFileFor(wordsFile);
+
+        long start = System.nanoTime();
+        compile(wordsFile, snapshotFile);
+        long compiled = System.nanoTime();
+        DawgWordStore store = open(snapshotFile);
+        System.out.println(String.format("compiled %d words from %s into %s (%d bytes) in %d ms",
+                                         store.size(), wordsFile, snapshotFile, Files.size(snapshotFile),
+                                         (compiled - start) / 1_000_000));
+    }
+}
@@ -0,0 +1,32 @@
+package words;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The simplest WordStore, just keeps every word as a String in a Set. Lookups are fast, but each word costs a String
+ * object plus a hash table node, so this uses a lot more memory than the DawgWordStore
+ */
+public class HashSetWordStore implements WordStore {
+
+    private final Set<String> words;
+
+    public HashSetWordStore(Set<String> words) {
+        this.words = words;
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return words.contains(word);
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    @Override
+    public void forEach(Consumer<String> consumer) {
+        words.forEach(consumer);
+    }
+}
@@ -1,7 +1,5 @@
 package words;
 
-import java.util.Optional;
-
 /**
  * This enum represents all the letters that are valid to guess. I could have just used a String or Character for this,
  * but then I'd have to have regex's to validate which ones are allowed, and we'd have to worry about upper case.
@@ -11,6 +9,16 @@ public enum Letter
 {
     A, B, C, D, E, F, G, H, I, J, K, L, M, N, O, P, Q, R, S, T, U, V, W, X, Y, Z;
 
+    // every Letter by the char that stands for it, upper or lower case, so turning a char into a Letter is one array
+    // lookup rather than building a String and looking up the enum by name. Anything that isn't a letter is null
+    private static final Letter[] BY_CHAR = new Letter[128];
+    static {
+        for (Letter letter : values()) {
+            BY_CHAR['A' + letter.ordinal()] = letter;
+            BY_CHAR['a' + letter.ordinal()] = letter;
+        }
+    }
+
     /**
      * turn the given char into a Letter
      * returns null if the char was a space (since these are allowed in the game)
@@ -22,7 +30,11 @@ public enum Letter
             return null;
         }
 
-        return fromString(String.valueOf(c));
+        Letter letter = lookup(c);
+        if (letter == null) {
+            throw new IllegalArgumentException("not a letter: '" + c + "'");
+        }
+        return letter;
     }
 
     /**
@@ -31,15 +43,37 @@ public enum Letter
      * throws IllegalArgumentException if the String doesn't match any Letter (e.g. a special char, or multiple chars)
      */
     public static Letter fromString(String str) {
-        return Letter.valueOf(str.toUpperCase());
+        Letter letter = str.length() == 1 ? lookup(str.charAt(0)) : null;
+        if (letter == null) {
+            throw new IllegalArgumentException("not a letter: '" + str + "'");
+        }
+        return letter;
+    }
+
+    /**
+     * the Letter that matches the given char (case insensitive), or null if it isn't a letter - unlike fromChar() this
+     * never throws, so it's the one to use for checking user input, where bad chars are expected rather than exceptional
+     */
+    public static Letter lookup(char c) {
+        return c < BY_CHAR.length ? BY_CHAR[c] : null;
+    }
+
+    /** can the given char be part of a Phrase? i.e. is it a letter or a space */
+    public static boolean isAllowedInPhrase(char c) {
+        return c == ' ' || lookup(c) != null;
     }
 
     /**
      * turn the given Letter into a String - note that null Letter is a special case that returns a space
      */
     public static String asString(Letter letter) {
-        return Optional.ofNullable(letter)
-                       .map(Letter::name)
-                       .orElse(" ");
+        return letter == null ? " " : letter.name();
+    }
+
+    /**
+     * turn the given Letter into an upper case char - like asString(), a null Letter is a space
+     */
+    public static char asChar(Letter letter) {
+        return letter == null ? ' ' : (char) ('A' + letter.ordinal());
     }
 }
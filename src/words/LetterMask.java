@@ -0,0 +1,105 @@
+package words;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Helpers for keeping a set of Letters as a single int, with one bit per Letter (bit 0 is A, bit 25 is Z).
+ * Since there are only 26 letters, this lets game state like "which letters have been guessed" be updated and checked
+ * with a couple of bit operations, instead of going through a HashSet and allocating for every change.
+ * When something needs a real Set (e.g. to display it), asSet() gives a read-only view over the bits.
+ */
+public final class LetterMask {
+
+    /** the mask with every letter in it */
+    public static final int ALL = (1 << Letter.values().length) - 1;
+
+    /** the mask with no letters in it */
+    public static final int NONE = 0;
+
+    private static final Letter[] LETTERS = Letter.values(); // values() copies the array every call, so keep one
+
+    private LetterMask() {
+    }
+
+    /** the mask with just the given letter in it */
+    public static int of(Letter letter) {
+        return 1 << letter.ordinal();
+    }
+
+    /** the mask with all of the given letters in it */
+    public static int of(Collection<Letter> letters) {
+        if (letters instanceof MaskView) { // already backed by a mask, no need to go through the letters
+            return ((MaskView) letters).mask.getAsInt();
+        }
+        int mask = NONE;
+        for (Letter letter : letters) {
+            mask |= of(letter);
+        }
+        return mask;
+    }
+
+    /** is the given letter in the mask? */
+    public static boolean contains(int mask, Letter letter) {
+        return (mask & of(letter)) != 0;
+    }
+
+    /** the number of letters in the mask */
+    public static int size(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * a read-only Set view of the mask returned by the given supplier. The view reads the supplier every time it's
+     * used, so it always reflects the current value, e.g. LetterMask.asSet(() -> guessedLetters) for a field.
+     * Iterates in alphabetical order.
+     */
+    public static Set<Letter> asSet(IntSupplier mask) {
+        return new MaskView(mask);
+    }
+
+    // a read-only Set backed by a mask, AbstractSet already throws UnsupportedOperationException for modifications
+    private static class MaskView extends AbstractSet<Letter> {
+        private final IntSupplier mask;
+
+        private MaskView(IntSupplier mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Letter && LetterMask.contains(mask.getAsInt(), (Letter) o);
+        }
+
+        @Override
+        public int size() {
+            return LetterMask.size(mask.getAsInt());
+        }
+
+        @Override
+        public Iterator<Letter> iterator() {
+            return new Iterator<>() {
+                private int remaining = mask.getAsInt();
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Letter next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int lowest = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1; // clear the lowest bit
+                    return LETTERS[lowest];
+                }
+            };
+        }
+    }
+}
@@ -2,56 +2,135 @@ package words;
 
 import game.GameStatus;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * This class represents a phrase, which can be one or more words, made up of a ordered list of Letters.
- * Spaces in between words are represented with a null Letter
+ * Spaces in between words are represented with a null Letter.
+ * A Phrase never changes, so the text of the phrase is worked out once up front rather than every time it's shown.
  */
 public class Phrase {
-    private List<Letter> orderedLetters; // letters in order, making up the word or phrase
+    private final Letter[] orderedLetters; // letters in order, making up the word or phrase
+    private final char[] rawChars; // the phrase as upper case chars, with spaces for the null letters
+    private final String rawString; // the same as a String
 
-    // unique letters used to do a quicker check on whether the phrase contains a letters
-    private Set<Letter> uniqueLetters;
+    // unique letters as a LetterMask, used to do a quicker check on whether the phrase contains a letter
+    private int uniqueLetters;
 
     public Phrase(List<Letter> letters) {
-        this.orderedLetters = letters;
-        this.uniqueLetters = letters.stream()
-                                    .filter(Objects::nonNull) // we don't care about spaces in our set of unique letters
-                                    .collect(Collectors.toSet());
+        this(letters.toArray(new Letter[0]));
+    }
+
+    // takes ownership of the given array, which nothing else should hold on to
+    private Phrase(Letter[] orderedLetters) {
+        this.orderedLetters = orderedLetters;
+        this.rawChars = new char[orderedLetters.length];
+        for (int i = 0; i < orderedLetters.length; i++) {
+            Letter letter = orderedLetters[i];
+            if (letter != null) { // we don't care about spaces in our set of unique letters
+                uniqueLetters |= LetterMask.of(letter);
+            }
+            rawChars[i] = Letter.asChar(letter);
+        }
+        this.rawString = new String(rawChars);
+    }
+
+    /**
+     * parse the given text (letters in any case, and spaces) into a Phrase
+     * returns null if the text has any other chars in it, or has no letters at all - use indexOfInvalidChar() to find
+     * out which char was the problem. Nothing is allocated other than the Phrase itself, and nothing is thrown
+     */
+    public static Phrase fromString(CharSequence text) {
+        if (indexOfInvalidChar(text) >= 0) {
+            return null;
+        }
+
+        Letter[] letters = new Letter[text.length()];
+        boolean anyLetters = false;
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = Letter.lookup(text.charAt(i)); // null for spaces, which are all that's left after the check
+            anyLetters |= letters[i] != null;
+        }
+        return anyLetters ? new Phrase(letters) : null;
+    }
+
+    /** the position of the first char in the text that can't be part of a Phrase, or -1 if they all can */
+    public static int indexOfInvalidChar(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Letter.isAllowedInPhrase(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /** does our phrase contain the given letter? */
     public boolean contains(Letter letter) {
-        return uniqueLetters.contains(letter);
+        return LetterMask.contains(uniqueLetters, letter);
     }
 
     /** have all the letters in our phrase been guessed? */
     public boolean allLettersGuessed(Set<Letter> guessedLetters) {
-        return guessedLetters.containsAll(uniqueLetters);
+        return allLettersGuessed(LetterMask.of(guessedLetters));
+    }
+
+    /** have all the letters in our phrase been guessed, given the guessed letters as a LetterMask? */
+    public boolean allLettersGuessed(int guessedLetters) {
+        return (uniqueLetters & ~guessedLetters) == 0;
+    }
+
+    /** the number of letters in the phrase, counting spaces */
+    public int length() {
+        return orderedLetters.length;
+    }
+
+    /** the letter at the given position in the phrase, or null if it's a space */
+    public Letter letterAt(int position) {
+        return orderedLetters[position];
+    }
+
+    /** the char at the given position in the phrase, an upper case letter or a space */
+    public char charAt(int position) {
+        return rawChars[position];
+    }
+
+    /** the unique letters in our phrase, as a LetterMask */
+    public int getUniqueLetters() {
+        return uniqueLetters;
+    }
+
+    /** is the other phrase made of the same letters and spaces as this one? */
+    public boolean sameLettersAs(Phrase other) {
+        return Arrays.equals(rawChars, other.rawChars);
     }
 
     /** get the phrase as a String - print out the whole thing without worrying about hiding any unguessed letters */
     public String asRawString() {
-        return orderedLetters.stream()
-                             .map(Letter::asString)
-                             .collect(Collectors.joining());
+        return rawString;
     }
 
-    /** get the phrase as a String, but replace any letters that haven't been guessed with the given hidden string */
+    /**
+     * get the phrase as a String, but replace any letters that haven't been guessed with the given hidden string.
+     * To show the same phrase turn after turn, a RevealedPhrase only updates what changed
+     */
     public String asStringWithHiding(Set<Letter> correctlyGuessedLetters, GameStatus gameStatus, String hiddenString) {
-        return orderedLetters.stream()
-                             .map(letter -> letterAsString(letter, correctlyGuessedLetters, gameStatus, hiddenString))
-                             .collect(Collectors.joining());
-    }
+        if (gameStatus.isGameOver()) { // show everything once the game is over
+            return rawString;
+        }
 
-    // return the hidden value if the given letter is non-null and we haven't guessed it, and the game is still going
-    private String letterAsString(Letter letter, Set<Letter> correctlyGuessedLetters, GameStatus gameStatus, String hiddenString) {
-        return letter == null ||
-               correctlyGuessedLetters.contains(letter) ||
-               gameStatus.isGameOver() ? Letter.asString(letter) : hiddenString;
+        int guessed = LetterMask.of(correctlyGuessedLetters);
+        StringBuilder hidden = new StringBuilder(rawChars.length * Math.max(1, hiddenString.length()));
+        for (int i = 0; i < orderedLetters.length; i++) {
+            Letter letter = orderedLetters[i];
+            if (letter == null || LetterMask.contains(guessed, letter)) {
+                hidden.append(rawChars[i]);
+            }
+            else {
+                hidden.append(hiddenString);
+            }
+        }
+        return hidden.toString();
     }
 }
@@ -0,0 +1,86 @@
+package words;
+
+import java.util.Arrays;
+
+/**
+ * The phrase as the guessing player sees it, with the letters they haven't guessed yet hidden. Rather than building
+ * the whole thing again every turn, this keeps the text in a buffer and only writes the positions of newly guessed
+ * letters into it, and keeps the String of it until something changes. So showing the phrase on a turn where nothing
+ * was revealed doesn't do any work at all.
+ *
+ * A Phrase is shared (e.g. between games), so the buffer lives here instead, one per game for whoever is showing it.
+ * Not thread safe.
+ */
+public class RevealedPhrase {
+    private static final int NO_POSITION = -1;
+
+    private final Phrase phrase;
+    private final char[] revealed; // the phrase with hidden chars for the letters that aren't revealed yet
+    private final int[] firstPosition; // for each letter, where it first shows up in the phrase
+    private final int[] nextPosition; // for each position, where the same letter shows up next
+    private int revealedLetters = LetterMask.NONE; // the letters that are showing, as a LetterMask
+    private String revealedString; // the buffer as a String, or null if it's changed since we last made one
+
+    public RevealedPhrase(Phrase phrase, char hiddenChar) {
+        this.phrase = phrase;
+        this.revealed = new char[phrase.length()];
+        this.firstPosition = new int[Letter.values().length];
+        this.nextPosition = new int[phrase.length()];
+        Arrays.fill(firstPosition, NO_POSITION);
+
+        // link up the positions of each letter, going backwards so each one is put in front of the later ones
+        for (int i = phrase.length() - 1; i >= 0; i--) {
+            Letter letter = phrase.letterAt(i);
+            if (letter == null) {
+                revealed[i] = ' '; // spaces are never hidden
+                nextPosition[i] = NO_POSITION;
+            }
+            else {
+                revealed[i] = hiddenChar;
+                nextPosition[i] = firstPosition[letter.ordinal()];
+                firstPosition[letter.ordinal()] = i;
+            }
+        }
+    }
+
+    /** is this showing the given phrase? */
+    public boolean isFor(Phrase phrase) {
+        return this.phrase == phrase;
+    }
+
+    /** show all of the given letters (a LetterMask) that aren't showing yet */
+    public void reveal(int letters) {
+        for (int newLetters = letters & ~revealedLetters; newLetters != 0; newLetters &= newLetters - 1) {
+            int letter = Integer.numberOfTrailingZeros(newLetters);
+            for (int i = firstPosition[letter]; i != NO_POSITION; i = nextPosition[i]) {
+                revealed[i] = phrase.charAt(i);
+                revealedString = null;
+            }
+        }
+        revealedLetters |= letters;
+    }
+
+    /** the letters that are showing, as a LetterMask */
+    public int getRevealedLetters() {
+        return revealedLetters;
+    }
+
+    /** show every letter, e.g. once the game is over */
+    public void revealAll() {
+        reveal(LetterMask.ALL);
+    }
+
+    /** add the phrase as it's showing to the given builder */
+    public StringBuilder appendTo(StringBuilder builder) {
+        return builder.append(revealed);
+    }
+
+    /** the phrase as it's showing */
+    @Override
+    public String toString() {
+        if (revealedString == null) {
+            revealedString = new String(revealed);
+        }
+        return revealedString;
+    }
+}
@@ -0,0 +1,189 @@
+package words;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Reads a word list (one word per line) and hands out the words in sorted order as UTF-8 bytes, which is what the
+ * DawgWordStore builder needs, without ever holding the whole list in memory. Word lists are almost always sorted
+ * already, so the file is checked first and then just streamed through a line at a time. If it isn't sorted, it's read
+ * in fixed size chunks, each chunk is sorted (in parallel) and written out to a temporary file, and then all of the
+ * chunks are merged back together. Either way memory use is bounded by the chunk size, not the size of the list.
+ */
+final class SortedWordReader {
+    static final int CHUNK_WORDS = 1 << 16; // words to sort in memory at once, a few MB for typical words
+
+    // unsigned byte order, which is UTF-8's code point order
+    private static final Comparator<byte[]> BYTE_ORDER = Arrays::compareUnsigned;
+
+    private SortedWordReader() {
+    }
+
+    /** call the consumer with every word in the file, sorted by UTF-8 bytes. Duplicates are passed through */
+    static void forEachSorted(Path wordsFile, Consumer<byte[]> consumer) throws IOException {
+        forEachSorted(wordsFile, CHUNK_WORDS, consumer);
+    }
+
+    /** the same, sorting at most chunkWords words in memory at once */
+    static void forEachSorted(Path wordsFile, int chunkWords, Consumer<byte[]> consumer) throws IOException {
+        Boolean hasEmptyWord = checkSorted(wordsFile);
+        if (hasEmptyWord == null) {
+            externalSort(wordsFile, chunkWords, consumer);
+            return;
+        }
+
+        // already in order, apart from empty lines which always sort first
+        if (hasEmptyWord) {
+            consumer.accept(new byte[0]);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(wordsFile)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isEmpty()) {
+                    consumer.accept(line.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    // read through the file once, without keeping any words. Returns null if it's not sorted, otherwise whether it
+    // contains an empty line (which we let be anywhere, e.g. from a stray blank line, since it's easy to put first)
+    private static Boolean checkSorted(Path wordsFile) throws IOException {
+        boolean hasEmptyWord = false;
+        byte[] previous = null;
+        try (BufferedReader reader = Files.newBufferedReader(wordsFile)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty()) {
+                    hasEmptyWord = true;
+                    continue;
+                }
+                byte[] word = line.getBytes(StandardCharsets.UTF_8);
+                if (previous != null && BYTE_ORDER.compare(previous, word) > 0) {
+                    return null;
+                }
+                previous = word;
+            }
+        }
+        return hasEmptyWord;
+    }
+
+    // sort each chunk and spill it to a temporary file, then merge the files
+    private static void externalSort(Path wordsFile, int chunkWords, Consumer<byte[]> consumer) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try {
+            byte[][] chunk = new byte[chunkWords][];
+            try (BufferedReader reader = Files.newBufferedReader(wordsFile)) {
+                int count = 0;
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    chunk[count++] = line.getBytes(StandardCharsets.UTF_8);
+                    if (count == chunkWords) {
+                        runs.add(writeRun(chunk, count));
+                        count = 0;
+                    }
+                }
+
+                if (runs.isEmpty()) { // everything fit in one chunk, no need to go through a file
+                    Arrays.parallelSort(chunk, 0, count, BYTE_ORDER);
+                    for (int i = 0; i < count; i++) {
+                        consumer.accept(chunk[i]);
+                    }
+                    return;
+                }
+                if (count > 0) {
+                    runs.add(writeRun(chunk, count));
+                }
+            }
+            chunk = null; // done with it, let it be collected while we merge
+
+            mergeRuns(runs, consumer);
+        }
+        finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    // sort the first count words of the chunk, and write them to a new temporary file as length prefixed bytes
+    private static Path writeRun(byte[][] chunk, int count) throws IOException {
+        Arrays.parallelSort(chunk, 0, count, BYTE_ORDER);
+        Path run = Files.createTempFile("hangman-words", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            for (int i = 0; i < count; i++) {
+                out.writeInt(chunk[i].length);
+                out.write(chunk[i]);
+                chunk[i] = null;
+            }
+        }
+        return run;
+    }
+
+    // merge the sorted runs, always taking the smallest next word from any of them
+    private static void mergeRuns(List<Path> runs, Consumer<byte[]> consumer) throws IOException {
+        PriorityQueue<RunReader> readers = new PriorityQueue<>(runs.size(),
+                                                               Comparator.comparing(reader -> reader.next, BYTE_ORDER));
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.advance()) {
+                    readers.add(reader);
+                }
+                else {
+                    reader.in.close();
+                }
+            }
+            while (!readers.isEmpty()) {
+                RunReader reader = readers.poll();
+                consumer.accept(reader.next);
+                if (reader.advance()) {
+                    readers.add(reader);
+                }
+                else {
+                    reader.in.close();
+                }
+            }
+        }
+        finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    // reads the words back out of one run file
+    private static class RunReader {
+        private final DataInputStream in;
+        private byte[] next; // the word at the front of this run
+
+        private RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+        }
+
+        // move on to the next word, returns false if there aren't any left
+        private boolean advance() throws IOException {
+            int length;
+            try {
+                length = in.readInt();
+            }
+            catch (EOFException e) {
+                return false;
+            }
+            next = new byte[length];
+            in.readFully(next);
+            return true;
+        }
+    }
+}
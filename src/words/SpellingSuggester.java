@@ -0,0 +1,271 @@
+package words;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * Suggests dictionary words close to a word that isn't in the dictionary, for "did you mean" messages. Close means
+ * at most MAX_DISTANCE edits away, where an edit is adding, removing, or changing a letter, or swapping two letters
+ * next to each other.
+ *
+ * Comparing against every dictionary word would mean 100k+ edit distances per typo, so this uses the symmetric delete
+ * trick instead (as in SymSpell): two words within 2 edits of each other always have some way of deleting at most 2
+ * letters from each that leaves them the same. So every dictionary word is filed under each string you can get by
+ * deleting up to 2 of its letters, and a lookup makes the same deletes from the typo and only checks the words filed
+ * under those. Only the first PREFIX_LENGTH letters of a word are used for this, which keeps the number of deletes per
+ * word small (at most 29) without missing much, since typos in long words rarely all land near the end.
+ *
+ * The index is a single sorted long[], each entry being a hash of one delete in the high bits and the word's number in
+ * the low bits, so it takes no Strings or objects beyond the words themselves, and looking up a delete is one binary
+ * search. A hash collision just means checking an extra word, since every candidate's real edit distance is checked.
+ * Once built it's read-only, so it can be shared between threads.
+ */
+public class SpellingSuggester {
+    public static final int MAX_DISTANCE = 2;
+    private static final int PREFIX_LENGTH = 7;
+
+    private static final int WORD_BITS = 24; // the low bits of each entry are the word's number, so up to 16M words
+    private static final long WORD_MASK = (1L << WORD_BITS) - 1;
+    private static final long HASH_MASK = Long.MAX_VALUE & ~WORD_MASK; // no sign bit, so entries sort by their hash
+    private static final int ENTRIES_PER_BUCKET = 4;
+
+    private final String[] words;
+    private final long[] entries; // sorted, (hash of a delete & HASH_MASK) | word number
+    private final int[] bucketStarts; // [top bucketBits of a hash] -> the first entry with those top bits
+    private final int bucketBits;
+
+    private SpellingSuggester(String[] words, long[] entries) {
+        this.words = words;
+        this.entries = entries;
+
+        // a binary search over millions of entries would miss the cache at almost every step, so jump straight to the
+        // few entries that share the top bits of the hash instead, with about ENTRIES_PER_BUCKET in each bucket
+        bucketBits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(entries.length / ENTRIES_PER_BUCKET));
+        bucketStarts = new int[(1 << bucketBits) + 1];
+        int entry = 0;
+        for (int bucket = 0; bucket < bucketStarts.length; bucket++) {
+            while (entry < entries.length && bucket(entries[entry]) < bucket) {
+                entry++;
+            }
+            bucketStarts[bucket] = entry;
+        }
+    }
+
+    /** index every word in the dictionary, waiting for it to load if needed */
+    public static SpellingSuggester build(Dictionary dictionary) {
+        return build(dictionary::forEachWord);
+    }
+
+    /** index every word in the given store */
+    static SpellingSuggester build(WordStore words) {
+        return build(words::forEach);
+    }
+
+    // index every word the given forEach passes on
+    private static SpellingSuggester build(Consumer<Consumer<String>> forEachWord) {
+        List<String> wordList = new ArrayList<>();
+        forEachWord.accept(wordList::add);
+        String[] words = wordList.subList(0, (int) Math.min(wordList.size(), WORD_MASK + 1)).toArray(new String[0]);
+
+        LongStream.Builder entries = LongStream.builder();
+        long[] hashes = new long[maxDeletes(PREFIX_LENGTH)];
+        for (int word = 0; word < words.length; word++) {
+            if (words[word].isEmpty()) {
+                continue; // a blank line in the word list isn't worth suggesting
+            }
+            int count = deleteHashes(words[word], hashes);
+            for (int i = 0; i < count; i++) {
+                entries.add(hashes[i] | word);
+            }
+        }
+
+        // sort so each delete's words are next to each other, then drop any repeats, e.g. "ll" from "all" both ways
+        long[] sorted = entries.build().toArray();
+        Arrays.parallelSort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return new SpellingSuggester(words, Arrays.copyOf(sorted, unique));
+    }
+
+    /** the number of words indexed */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * up to maxSuggestions dictionary words within MAX_DISTANCE edits of the given word, closest first (and then in
+     * alphabetical order). Empty if there aren't any
+     */
+    public List<String> suggestionsFor(String word, int maxSuggestions) {
+        String typo = word.toLowerCase(Locale.ROOT); // the words are all lower case, but people type capitals
+        long[] hashes = new long[maxDeletes(PREFIX_LENGTH)];
+        int count = deleteHashes(typo, hashes);
+
+        // scratch rows for the edit distances, long enough for any word close enough in length to be a suggestion
+        int[][] rows = new int[3][typo.length() + MAX_DISTANCE + 1];
+
+        // the best suggestions so far, in order, so the hundreds of words within reach of a short typo never need
+        // sorting. A word can be found under more than one delete, which is rare enough that it's quicker to check it
+        // again than to keep track of which words have been checked, so repeats are dropped here too
+        String[] best = new String[maxSuggestions];
+        int[] bestDistances = new int[maxSuggestions];
+        int bestCount = 0;
+        for (int i = 0; i < count; i++) {
+            for (int entry = firstEntry(hashes[i]); entry < entries.length && sameHash(entries[entry], hashes[i]);
+                 entry++) {
+                String candidate = words[(int) (entries[entry] & WORD_MASK)];
+                int distance = distance(typo, candidate, rows);
+                if (distance > MAX_DISTANCE) {
+                    continue;
+                }
+                int insertAt = bestCount;
+                while (insertAt > 0 && isBetter(distance, candidate, bestDistances[insertAt - 1], best[insertAt - 1])) {
+                    insertAt--;
+                }
+                boolean repeat = insertAt > 0 && candidate.equals(best[insertAt - 1]);
+                if (!repeat && insertAt < maxSuggestions) {
+                    int moved = Math.min(bestCount, maxSuggestions - 1) - insertAt;
+                    System.arraycopy(best, insertAt, best, insertAt + 1, moved);
+                    System.arraycopy(bestDistances, insertAt, bestDistances, insertAt + 1, moved);
+                    best[insertAt] = candidate;
+                    bestDistances[insertAt] = distance;
+                    bestCount = Math.min(bestCount + 1, maxSuggestions);
+                }
+            }
+        }
+        return Arrays.asList(best).subList(0, bestCount);
+    }
+
+    // closer words come first, and then alphabetical order
+    private static boolean isBetter(int distance, String word, int otherDistance, String otherWord) {
+        return distance != otherDistance ? distance < otherDistance : word.compareTo(otherWord) < 0;
+    }
+
+    // the index of the first entry with the given hash, or where it would be if there are none
+    private int firstEntry(long hash) {
+        int bucket = bucket(hash);
+        int entry = bucketStarts[bucket];
+        int end = bucketStarts[bucket + 1];
+        while (entry < end && entries[entry] < hash) {
+            entry++;
+        }
+        return entry;
+    }
+
+    // the bucket an entry or hash goes in, from its top bits
+    private int bucket(long entry) {
+        return (int) (entry >>> (Long.SIZE - 1 - bucketBits));
+    }
+
+    private static boolean sameHash(long entry, long hash) {
+        return (entry & HASH_MASK) == hash;
+    }
+
+    // the most deletes of up to MAX_DISTANCE letters from a prefix this long, counting not deleting anything
+    private static int maxDeletes(int length) {
+        return 1 + length + length * (length - 1) / 2;
+    }
+
+    /**
+     * hash every string made by deleting up to MAX_DISTANCE letters from the word's prefix into the given array, with
+     * only the HASH_MASK bits kept, and return how many there are. Some may repeat, which the callers put up with
+     */
+    private static int deleteHashes(String word, long[] hashes) {
+        int length = Math.min(word.length(), PREFIX_LENGTH);
+        int count = 0;
+        hashes[count++] = hashWithout(word, length, -1, -1);
+        for (int i = 0; i < length; i++) {
+            hashes[count++] = hashWithout(word, length, i, -1);
+            for (int j = i + 1; j < length; j++) {
+                hashes[count++] = hashWithout(word, length, i, j);
+            }
+        }
+        return count;
+    }
+
+    // a 64 bit FNV-1a hash of the first length chars of the word, skipping the ones at the two given positions
+    private static long hashWithout(String word, int length, int skip1, int skip2) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < length; i++) {
+            if (i != skip1 && i != skip2) {
+                hash = (hash ^ word.charAt(i)) * 0x100000001B3L;
+            }
+        }
+        hash ^= hash >>> 29; // FNV leaves the top bits, which we keep, weaker than the bottom ones, so mix them up
+        return (hash * 0xBF58476D1CE4E5B9L) & HASH_MASK;
+    }
+
+    /**
+     * the number of edits between the two words, where swapping two neighbouring letters counts as one edit (the
+     * optimal string alignment distance), or anything above MAX_DISTANCE if it's more than that. Uses the given three
+     * rows as scratch space, which have to be longer than b
+     */
+    static int distance(String a, String b, int[][] rows) {
+        if (Math.abs(a.length() - b.length()) > MAX_DISTANCE) {
+            return MAX_DISTANCE + 1;
+        }
+        // letters the words start or end with in common never need editing, so only compare what's in between. The
+        // candidates mostly share a prefix with the typo, since that's how they were found, so this saves a lot
+        int start = 0;
+        while (start < a.length() && start < b.length() && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        int aEnd = a.length();
+        int bEnd = b.length();
+        while (aEnd > start && bEnd > start && a.charAt(aEnd - 1) == b.charAt(bEnd - 1)) {
+            aEnd--;
+            bEnd--;
+        }
+        int aLength = aEnd - start;
+        int bLength = bEnd - start;
+
+        // the usual dynamic programming table, keeping just the last three rows. Only the cells within MAX_DISTANCE
+        // of the diagonal can ever be MAX_DISTANCE or less, so those are the only ones worked out, and the cell either
+        // side of them is set to "too far" in case it's left over from an earlier row
+        int tooFar = MAX_DISTANCE + 1;
+        int[] twoRowsBack = rows[0];
+        int[] previous = rows[1];
+        int[] current = rows[2];
+        for (int j = 0; j <= bLength; j++) {
+            previous[j] = j;
+        }
+        char aBefore = 0;
+        for (int i = 1; i <= aLength; i++) {
+            char aChar = a.charAt(start + i - 1);
+            int from = Math.max(1, i - MAX_DISTANCE);
+            int to = Math.min(bLength, i + MAX_DISTANCE);
+            current[from - 1] = from == 1 ? i : tooFar;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                char bChar = b.charAt(start + j - 1);
+                int cost = aChar == bChar ? 0 : 1;
+                int cell = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && aChar == b.charAt(start + j - 2) && aBefore == bChar) {
+                    cell = Math.min(cell, twoRowsBack[j - 2] + 1);
+                }
+                current[j] = cell;
+                rowMin = Math.min(rowMin, cell);
+            }
+            if (to < bLength) {
+                current[to + 1] = tooFar;
+            }
+            if (rowMin > MAX_DISTANCE) {
+                return tooFar; // every way of lining them up is already too far apart
+            }
+            int[] reuse = twoRowsBack;
+            twoRowsBack = previous;
+            previous = current;
+            current = reuse;
+            aBefore = aChar;
+        }
+        return previous[bLength];
+    }
+}
@@ -0,0 +1,282 @@
+package words;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An index over the dictionary words that could be a hangman word (only the letters A-Z), for quickly finding every
+ * word that matches a partly revealed pattern, e.g. "c-t" or "--ang--" where each '-' can be any letter. Words are
+ * bucketed by length, and each bucket keeps a bitset (one bit per word in the bucket) for every (position, letter)
+ * pair, plus one for every letter saying which words contain it anywhere. Matching a pattern is then just and-ing a
+ * few bitsets together, instead of rescanning any Strings.
+ *
+ * Candidate sets are passed around as long[] bitsets, where bit i (bit i % 64 of long i / 64) is the i'th word in
+ * the bucket for that word length. Use newCandidates() to get one the right size for a length.
+ *
+ * The pattern queries (count() and matching()) do all of that for you, starting from a pattern String, and hand back
+ * the matching words as a lazy Stream: the bitset is worked out up front, which is only one bit per word, but each
+ * word's String is only made as the stream gets to it, so a broad pattern never builds a huge list.
+ *
+ * Once built, the index is read-only, so it's safe to share between threads as long as each thread uses its own
+ * candidate arrays.
+ */
+public class WordIndex {
+    /** stands for any letter in a pattern, the same as a letter that's still hidden in the game */
+    public static final char WILDCARD = '-';
+
+    private static final int NUM_LETTERS = Letter.values().length;
+
+    private final Bucket[] buckets; // indexed by word length, null if there aren't any words of that length
+
+    private WordIndex(Bucket[] buckets) {
+        this.buckets = buckets;
+    }
+
+    /** build the index from all the words in the given dictionary, waiting for it to finish loading if needed */
+    public static WordIndex build(Dictionary dictionary) {
+        return build(dictionary::forEachWord);
+    }
+
+    /** build the index from all the words in the given store */
+    static WordIndex build(WordStore words) {
+        return build(words::forEach);
+    }
+
+    // build the index from every word the given forEach passes on
+    private static WordIndex build(Consumer<Consumer<String>> forEachWord) {
+        List<List<byte[]>> wordsByLength = new ArrayList<>();
+        forEachWord.accept(word -> {
+            byte[] letters = toLetters(word);
+            if (letters != null) {
+                while (wordsByLength.size() <= letters.length) {
+                    wordsByLength.add(new ArrayList<>());
+                }
+                wordsByLength.get(letters.length).add(letters);
+            }
+        });
+
+        Bucket[] buckets = new Bucket[wordsByLength.size()];
+        for (int length = 1; length < buckets.length; length++) {
+            if (!wordsByLength.get(length).isEmpty()) {
+                buckets[length] = new Bucket(length, wordsByLength.get(length));
+            }
+        }
+        return new WordIndex(buckets);
+    }
+
+    // turn a word into the ordinals of its Letters, or null if it has anything in it that isn't a letter (e.g. "don't")
+    private static byte[] toLetters(String word) {
+        if (word.isEmpty()) {
+            return null;
+        }
+        byte[] letters = new byte[word.length()];
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c < 'A' || c > 'Z') {
+                return null;
+            }
+            letters[i] = (byte) (c - 'A');
+        }
+        return letters;
+    }
+
+    /** the number of indexed words with the given length */
+    public int size(int length) {
+        Bucket bucket = bucket(length);
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    /** a new, empty candidate bitset big enough for the words of the given length */
+    public long[] newCandidates(int length) {
+        return new long[wordsToLongs(size(length))];
+    }
+
+    /**
+     * find the words that match the given pattern, and write them into the candidates bitset (which must have come
+     * from newCandidates() for the pattern's length). Returns the number of matching words.
+     *
+     * The pattern is the Letter for each position, with null for positions that could be any letter. The excluded
+     * letters (a LetterMask) can't appear in any of those unknown positions, e.g. for hangman that's every letter
+     * that's been guessed, since a correct guess would have been revealed, and a wrong one isn't in the word at all.
+     */
+    public int match(Letter[] pattern, int length, int excludedLetters, long[] candidates) {
+        Bucket bucket = bucket(length);
+        if (bucket == null) {
+            return 0;
+        }
+
+        bucket.fillAll(candidates);
+        for (int position = 0; position < length; position++) {
+            Letter letter = pattern[position];
+            if (letter != null) {
+                and(candidates, bucket.positionLetters[position * NUM_LETTERS + letter.ordinal()]);
+            }
+            else {
+                for (int excluded = excludedLetters; excluded != 0; excluded &= excluded - 1) {
+                    int excludedLetter = Integer.numberOfTrailingZeros(excluded);
+                    andNot(candidates, bucket.positionLetters[position * NUM_LETTERS + excludedLetter]);
+                }
+            }
+        }
+        return count(candidates);
+    }
+
+    /**
+     * the number of words that match the given pattern: letters for the positions that have to be that letter, and
+     * WILDCARD for any letter that isn't one of the excluded letters (a LetterMask).
+     * throws IllegalArgumentException if the pattern has anything else in it
+     */
+    public int count(String pattern, int excludedLetters) {
+        Letter[] letters = parsePattern(pattern);
+        return match(letters, letters.length, excludedLetters, newCandidates(letters.length));
+    }
+
+    /**
+     * the words that match the given pattern, as for count(), in lower case. The words are only made as the stream
+     * gets to them, so it's fine to only take the first few of a pattern that matches thousands
+     */
+    public Stream<String> matching(String pattern, int excludedLetters) {
+        Letter[] letters = parsePattern(pattern);
+        int length = letters.length;
+        long[] candidates = newCandidates(length);
+        if (match(letters, length, excludedLetters, candidates) == 0) {
+            return Stream.empty();
+        }
+        Bucket bucket = bucket(length);
+        return IntStream.iterate(nextSetBit(candidates, 0), word -> word >= 0, word -> nextSetBit(candidates, word + 1))
+                        .mapToObj(bucket::word);
+    }
+
+    // the Letter for each position in the pattern, null for wildcards
+    private static Letter[] parsePattern(String pattern) {
+        Letter[] letters = new Letter[pattern.length()];
+        for (int i = 0; i < letters.length; i++) {
+            char c = pattern.charAt(i);
+            if (c != WILDCARD) {
+                letters[i] = Letter.lookup(c);
+                if (letters[i] == null) {
+                    throw new IllegalArgumentException(String.format("'%s' can't be in a pattern, only letters and %s",
+                                                                     c, WILDCARD));
+                }
+            }
+        }
+        return letters;
+    }
+
+    // the first set bit at or after the given one, or -1 if there isn't one
+    private static int nextSetBit(long[] bits, int from) {
+        int index = from >>> 6;
+        if (index >= bits.length) {
+            return -1;
+        }
+        long word = bits[index] & (-1L << from); // shifts only use the bottom 6 bits, so this clears the bits before
+        while (word == 0) {
+            if (++index == bits.length) {
+                return -1;
+            }
+            word = bits[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * for each letter, add the number of candidate words containing it to the matching entry in counts (indexed by
+     * Letter ordinal). Only letters in the given LetterMask are counted.
+     */
+    public void countLetters(int length, long[] candidates, int letters, int[] counts) {
+        Bucket bucket = bucket(length);
+        if (bucket == null) {
+            return;
+        }
+        for (int remaining = letters; remaining != 0; remaining &= remaining - 1) {
+            int letter = Integer.numberOfTrailingZeros(remaining);
+            counts[letter] += countBoth(candidates, bucket.containsLetter[letter]);
+        }
+    }
+
+    private Bucket bucket(int length) {
+        return length > 0 && length < buckets.length ? buckets[length] : null;
+    }
+
+    private static int wordsToLongs(int words) {
+        return (words + 63) >>> 6;
+    }
+
+    private static void and(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= other[i];
+        }
+    }
+
+    private static void andNot(long[] target, long[] other) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= ~other[i];
+        }
+    }
+
+    private static int count(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static int countBoth(long[] bits, long[] other) {
+        int count = 0;
+        for (int i = 0; i < bits.length; i++) {
+            count += Long.bitCount(bits[i] & other[i]);
+        }
+        return count;
+    }
+
+    // all the indexed words of one length
+    private static class Bucket {
+        private final int size; // number of words in this bucket
+        private final int length;
+        private final byte[] letters; // every word's Letter ordinals, one after another, to turn them back into words
+        private final long[][] positionLetters; // [position * 26 + letter] -> words with that letter at that position
+        private final long[][] containsLetter; // [letter] -> words with that letter at any position
+        private final long lastLongMask; // the bits in the last long of a bitset that are actual words
+
+        private Bucket(int length, List<byte[]> words) {
+            this.size = words.size();
+            this.length = length;
+            this.letters = new byte[size * length];
+            int longs = wordsToLongs(size);
+            this.positionLetters = new long[length * NUM_LETTERS][longs];
+            this.containsLetter = new long[NUM_LETTERS][longs];
+            this.lastLongMask = size % 64 == 0 ? -1L : (1L << (size % 64)) - 1;
+
+            for (int word = 0; word < size; word++) {
+                byte[] wordLetters = words.get(word);
+                System.arraycopy(wordLetters, 0, letters, word * length, length);
+                long bit = 1L << word; // shifts only use the bottom 6 bits, so this is the bit within its long
+                for (int position = 0; position < length; position++) {
+                    int letter = wordLetters[position];
+                    positionLetters[position * NUM_LETTERS + letter][word >>> 6] |= bit;
+                    containsLetter[letter][word >>> 6] |= bit;
+                }
+            }
+        }
+
+        // the word with the given number in this bucket
+        private String word(int word) {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ('a' + letters[word * length + i]);
+            }
+            return new String(chars);
+        }
+
+        // set the bit for every word in this bucket
+        private void fillAll(long[] candidates) {
+            Arrays.fill(candidates, -1L);
+            candidates[candidates.length - 1] = lastLongMask;
+        }
+    }
+}
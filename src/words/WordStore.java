@@ -0,0 +1,20 @@
+package words;
+
+import java.util.function.Consumer;
+
+/**
+ * A storage engine for the set of valid words. The Dictionary decides how to load the words, and hands them to one
+ * of these to keep around for lookups. Having this as an interface lets us swap in a different data structure (e.g. a
+ * plain HashSet vs a compact DAWG) without the Dictionary or any of its users caring which one they're talking to.
+ */
+public interface WordStore {
+
+    /** is the given word in this store? */
+    boolean contains(String word);
+
+    /** the number of distinct words in this store */
+    int size();
+
+    /** call the given consumer with every word in this store, in no particular order */
+    void forEach(Consumer<String> consumer);
+}
@@ -0,0 +1,143 @@
+package journal;
+
+import game.Game;
+import game.GameStatus;
+import game.TurnResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import words.Letter;
+import words.Phrase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for writing games to a GameJournal and replaying them with JournalReplay: that replay sees every game the way
+ * it was played, where it stops in a segment, and how games cut off by reopening the journal are told apart
+ */
+class GameJournalTest {
+    private static final int MAX_WRONG = 6;
+    private static final int SEGMENT_BYTES = 1024; // small enough that a few games fill several segments
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayedGamesEndTheWayTheyWerePlayed() throws IOException {
+        try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 20; i++) {
+                play(journal, "cat", "CAT");           // every letter
+                play(journal, "cat", "XYZQJV");        // too many wrong guesses
+                playPhrase(journal, "big cat", "dog", "big cat");
+            }
+        }
+        assertTrue(GameJournal.segments(directory).size() > 1);
+
+        JournalReplay replay = replay();
+        assertEquals(60, replay.getGamesStarted());
+        assertEquals(20 * (1 + 3 + 1 + 6 + 1 + 2), replay.getEvents());
+        assertEquals(20, replay.getGamesEndedWithStatus(GameStatus.GUESSED_ALL_LETTERS_CORRECTLY));
+        assertEquals(20, replay.getGamesEndedWithStatus(GameStatus.TOO_MANY_WRONG_GUESSES));
+        assertEquals(20, replay.getGamesEndedWithStatus(GameStatus.GUESSED_PHRASE_CORRECTLY));
+        assertEquals(0, replay.getGamesAbandoned());
+        assertEquals(0, replay.getGamesInProgress());
+        assertEquals(0, replay.getMismatchCount());
+    }
+
+    @Test
+    void replayStopsAtAnEventWhoseLengthWasNeverWritten() throws IOException {
+        try (GameJournal journal = new GameJournal(directory)) {
+            play(journal, "cat", "CAT");
+            play(journal, "dog", "DOG");
+        }
+        // the length is the last thing written, so a writer that died part way through an event left a 0 there, and
+        // nothing after it is read, even though there's more after it here
+        Path segment = GameJournal.segments(directory).get(0);
+        List<Integer> starts = eventStarts(segment);
+        assertEquals(8, starts.size());
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES), starts.get(6));
+        }
+
+        JournalReplay replay = replay();
+        assertEquals(6, replay.getEvents());
+        assertEquals(2, replay.getGamesStarted());
+        assertEquals(1, replay.getGamesEndedWithStatus(GameStatus.GUESSED_ALL_LETTERS_CORRECTLY));
+        assertEquals(1, replay.getGamesInProgress());
+        assertEquals(0, replay.getMismatchCount());
+    }
+
+    @Test
+    void gamesCutOffByReopeningAreAbandonedAndIdsAreNeverReused() throws IOException {
+        for (int run = 0; run < 3; run++) {
+            try (GameJournal journal = new GameJournal(directory, SEGMENT_BYTES)) {
+                play(journal, "cat", "CAT");
+                play(journal, "dog", "DO"); // never finished
+            }
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (Path segment : GameJournal.segments(directory)) {
+            ByteBuffer events = ByteBuffer.wrap(Files.readAllBytes(segment));
+            for (int start : eventStarts(segment)) {
+                if (events.get(start + Integer.BYTES) == GameJournal.GAME_STARTED) {
+                    ids.add(events.getLong(start + Integer.BYTES + Byte.BYTES));
+                }
+            }
+        }
+        assertEquals(6, ids.size());
+
+        JournalReplay replay = replay();
+        assertEquals(6, replay.getGamesStarted());
+        assertEquals(3, replay.getGamesEndedWithStatus(GameStatus.GUESSED_ALL_LETTERS_CORRECTLY));
+        assertEquals(2, replay.getGamesAbandoned()); // the last run's unfinished game could still be going
+        assertEquals(1, replay.getGamesInProgress());
+        assertEquals(0, replay.getMismatchCount());
+    }
+
+    private JournalReplay replay() throws IOException {
+        JournalReplay replay = new JournalReplay();
+        replay.replay(GameJournal.segments(directory));
+        return replay;
+    }
+
+    // play a game of the given phrase in the journal, guessing the given letters until it's over
+    private static void play(GameJournal journal, String phrase, String guesses) {
+        Phrase phraseToGuess = Phrase.fromString(phrase);
+        Game game = new Game(phraseToGuess, MAX_WRONG, journal.gameStarted(phraseToGuess, MAX_WRONG));
+        for (int i = 0; i < guesses.length() && !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(TurnResult.guessedLetter(Letter.fromChar(guesses.charAt(i))));
+        }
+    }
+
+    // play a game of the given phrase in the journal, guessing the given phrases until it's over
+    private static void playPhrase(GameJournal journal, String phrase, String... guesses) {
+        Phrase phraseToGuess = Phrase.fromString(phrase);
+        Game game = new Game(phraseToGuess, MAX_WRONG, journal.gameStarted(phraseToGuess, MAX_WRONG));
+        for (int i = 0; i < guesses.length && !game.getGameStatus().isGameOver(); i++) {
+            game.applyTurn(TurnResult.guessedPhrase(Phrase.fromString(guesses[i])));
+        }
+    }
+
+    // where each event in the segment starts, up to the first zero length
+    private static List<Integer> eventStarts(Path segment) throws IOException {
+        ByteBuffer events = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Integer> starts = new ArrayList<>();
+        while (events.remaining() >= GameJournal.HEADER_BYTES && events.getInt(events.position()) != 0) {
+            starts.add(events.position());
+            events.position(events.position() + Integer.BYTES + events.getInt(events.position()));
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,192 @@
+package leaderboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the files a Leaderboard is kept in: that what's written reads back the same, and the rules for putting a
+ * leaderboard back together after the process died part way through writing
+ */
+class LeaderboardFilesTest {
+    // a record is a byte of name length, the name, then 4 ints and a long
+    private static final int NUMBERS_BYTES = 4 * Integer.BYTES + Long.BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotAndUpdatesReadBackTheSame() throws IOException {
+        List<PlayerRecord> ranked = List.of(new PlayerRecord("ada", 12, 3, 40, 2, 7),
+                                            new PlayerRecord("Zo\u00eb", 12, 4, 51, 0, 5), // more than a byte a char
+                                            new PlayerRecord("x".repeat(Leaderboard.MAX_NAME_LENGTH), 1, 0, 0, 1, 1),
+                                            new PlayerRecord("bob", 0, 9, Long.MAX_VALUE, 0, 0));
+        List<PlayerRecord> updates = List.of(new PlayerRecord("carl", 1, 1, 6, 0, 1),
+                                             new PlayerRecord("ada", 13, 3, 42, 3, 7));
+        try (LeaderboardFiles files = new LeaderboardFiles(directory)) {
+            files.load();
+            files.startUpdates();
+            files.writeSnapshot(ranked);
+            for (PlayerRecord record : updates) {
+                files.append(record);
+            }
+        }
+
+        LeaderboardFiles.Contents contents = new LeaderboardFiles(directory).load();
+        assertSameRecords(ranked, Arrays.asList(contents.snapshot));
+        assertSameRecords(updates, contents.updates);
+    }
+
+    @Test
+    void updatesStopAtARecordWhoseNameLengthWasNeverWritten() throws IOException {
+        List<PlayerRecord> updates = appendThree();
+        Path file = onlyUpdateFile();
+        // the name length is the last thing written, so a writer that died part way through the third record left a 0
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), recordBytes(updates.get(0)) + recordBytes(updates.get(1)));
+        }
+
+        assertSameRecords(updates.subList(0, 2), new LeaderboardFiles(directory).load().updates);
+    }
+
+    @Test
+    void updatesStopAtARecordThatsCutShort() throws IOException {
+        List<PlayerRecord> updates = appendThree();
+        Path file = onlyUpdateFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(recordBytes(updates.get(0)) + recordBytes(updates.get(1)) + 5);
+        }
+
+        assertSameRecords(updates.subList(0, 2), new LeaderboardFiles(directory).load().updates);
+    }
+
+    @Test
+    void aPlayersRecordWithTheMostGamesWinsWhereverItIs() throws IOException {
+        try (LeaderboardFiles files = new LeaderboardFiles(directory)) {
+            files.load();
+            files.startUpdates();
+            // ada's in the snapshot twice, as a snapshot taken while she finishes a game can have her
+            files.writeSnapshot(List.of(new PlayerRecord("ada", 3, 0, 1, 3, 3),
+                                        new PlayerRecord("ada", 2, 0, 1, 2, 2),
+                                        new PlayerRecord("bob", 2, 2, 9, 0, 2)));
+            files.append(new PlayerRecord("bob", 1, 2, 8, 0, 1)); // older than the snapshot's
+            files.append(new PlayerRecord("carl", 0, 1, 6, 0, 0));
+            files.append(new PlayerRecord("carl", 1, 1, 6, 1, 1));
+            files.append(new PlayerRecord("carl", 0, 1, 6, 0, 0)); // and an older one after it
+        }
+
+        try (Leaderboard leaderboard = Leaderboard.open(directory, Duration.ZERO)) {
+            assertEquals(3, leaderboard.size());
+            assertSameRecords(List.of(new PlayerRecord("ada", 3, 0, 1, 3, 3),
+                                      new PlayerRecord("bob", 2, 2, 9, 0, 2),
+                                      new PlayerRecord("carl", 1, 1, 6, 1, 1)),
+                              leaderboard.top(10));
+        }
+    }
+
+    @Test
+    void aSnapshotOutOfRankingOrderIsRejected() throws IOException {
+        try (LeaderboardFiles files = new LeaderboardFiles(directory)) {
+            files.load();
+            files.writeSnapshot(List.of(new PlayerRecord("bob", 1, 0, 0, 1, 1),
+                                        new PlayerRecord("ada", 2, 0, 0, 2, 2)));
+        }
+
+        assertThrows(IOException.class, () -> new LeaderboardFiles(directory).load());
+    }
+
+    @Test
+    void snapshotsTakenWhileGamesFinishLoseNothing() throws Exception {
+        Leaderboard leaderboard = Leaderboard.open(directory, Duration.ZERO);
+        int threads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String prefix = "player" + t + "-";
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    leaderboard.record(prefix + (i % 300), i % 3 != 0, i % 7);
+                }
+            });
+            thread.start();
+            players.add(thread);
+        }
+        start.countDown();
+        int snapshots = 0;
+        do {
+            leaderboard.snapshot();
+            snapshots++;
+        }
+        while (players.stream().anyMatch(Thread::isAlive));
+        for (Thread thread : players) {
+            thread.join();
+        }
+        assertTrue(snapshots > 1);
+
+        // loaded again without closing the first one, as if the process had died: only the snapshot that was taken
+        // last and the updates after it are there
+        try (Leaderboard reloaded = Leaderboard.open(directory, Duration.ZERO)) {
+            assertEquals(threads * 300, reloaded.size());
+            assertSameRecords(leaderboard.top(Integer.MAX_VALUE), reloaded.top(Integer.MAX_VALUE));
+        }
+    }
+
+    // append three records to the first update file, and close it
+    private List<PlayerRecord> appendThree() throws IOException {
+        List<PlayerRecord> updates = List.of(new PlayerRecord("ada", 1, 0, 2, 1, 1),
+                                             new PlayerRecord("bob", 0, 1, 6, 0, 0),
+                                             new PlayerRecord("carl", 1, 0, 3, 1, 1));
+        try (LeaderboardFiles files = new LeaderboardFiles(directory)) {
+            files.load();
+            files.startUpdates();
+            for (PlayerRecord record : updates) {
+                files.append(record);
+            }
+        }
+        return updates;
+    }
+
+    private Path onlyUpdateFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> updateFiles = files.filter(file -> file.getFileName().toString()
+                                                              .startsWith(LeaderboardFiles.UPDATES_PREFIX))
+                                          .collect(Collectors.toList());
+            assertEquals(1, updateFiles.size());
+            return updateFiles.get(0);
+        }
+    }
+
+    private static int recordBytes(PlayerRecord record) {
+        return 1 + record.getName().getBytes(StandardCharsets.UTF_8).length + NUMBERS_BYTES;
+    }
+
+    // PlayerRecord has no equals(), and its toString() has every field
+    static void assertSameRecords(List<PlayerRecord> expected, List<PlayerRecord> actual) {
+        assertEquals(expected.stream().map(PlayerRecord::toString).collect(Collectors.toList()),
+                     actual.stream().map(PlayerRecord::toString).collect(Collectors.toList()));
+    }
+}
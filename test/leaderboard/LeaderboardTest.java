@@ -0,0 +1,90 @@
+package leaderboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static leaderboard.LeaderboardFilesTest.assertSameRecords;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the Leaderboard's ranking: the ranks worked out from the Fenwick tree of win counts, and the top players,
+ * against sorting everyone and counting the hard way
+ */
+class LeaderboardTest {
+    private static final int COUNTED_WINS = 1 << 16; // past this, rank() walks the ranking instead
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ranksMatchCountingEveryoneAhead() {
+        Leaderboard leaderboard = new Leaderboard();
+        playRandomGames(leaderboard, new Random(1), 2_000, 30_000);
+        checkRanking(leaderboard, 2_000);
+    }
+
+    @Test
+    void ranksPastTheCountedWinsMatchCountingEveryoneAhead() {
+        Leaderboard leaderboard = new Leaderboard();
+        for (int i = 0; i < COUNTED_WINS + 5; i++) {
+            leaderboard.record("ada", true, 0);
+        }
+        for (int i = 0; i < COUNTED_WINS + 2; i++) {
+            leaderboard.record("bob", true, 0);
+        }
+        for (int i = 0; i < COUNTED_WINS; i++) {
+            leaderboard.record("carl", true, 0);
+        }
+        playRandomGames(leaderboard, new Random(2), 100, 1_000);
+        assertEquals(1, leaderboard.rank("ada").getAsInt());
+        assertEquals(2, leaderboard.rank("bob").getAsInt());
+        assertEquals(3, leaderboard.rank("carl").getAsInt());
+        checkRanking(leaderboard, 103);
+    }
+
+    @Test
+    void ranksMatchCountingEveryoneAheadOnceReloaded() throws IOException {
+        try (Leaderboard leaderboard = Leaderboard.open(directory, Duration.ZERO)) {
+            playRandomGames(leaderboard, new Random(3), 1_000, 10_000);
+        }
+        try (Leaderboard reloaded = Leaderboard.open(directory, Duration.ZERO)) {
+            checkRanking(reloaded, 1_000);
+            playRandomGames(reloaded, new Random(4), 1_000, 5_000); // and it carries on the same from there
+            checkRanking(reloaded, 1_000);
+        }
+    }
+
+    private static void playRandomGames(Leaderboard leaderboard, Random random, int players, int games) {
+        for (int i = 0; i < games; i++) {
+            // the first few players play most of the games, so the wins spread out
+            int player = (int) (players * Math.pow(random.nextDouble(), 3));
+            leaderboard.record("player" + player, random.nextInt(3) != 0, random.nextInt(7));
+        }
+    }
+
+    // check everyone is in top() in RANKING order, and each player's rank is one more than the players with more wins
+    private static void checkRanking(Leaderboard leaderboard, int players) {
+        List<PlayerRecord> everyone = new ArrayList<>();
+        for (int player = 0; player < players; player++) {
+            leaderboard.get("player" + player).ifPresent(everyone::add);
+        }
+        for (String name : List.of("ada", "bob", "carl")) {
+            leaderboard.get(name).ifPresent(everyone::add);
+        }
+        everyone.sort(PlayerRecord.RANKING);
+        assertEquals(everyone.size(), leaderboard.size());
+        assertSameRecords(everyone, leaderboard.top(Integer.MAX_VALUE));
+
+        for (PlayerRecord record : everyone) {
+            long ahead = everyone.stream().filter(other -> other.getWins() > record.getWins()).count();
+            assertEquals(1 + ahead, leaderboard.rank(record.getName()).getAsInt(), record.getName());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package words;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for compiling and opening dictionary snapshots, and what happens when one on disk is damaged
+ */
+class DictionarySnapshotTest {
+    private static final int EDGE_COUNT_OFFSET = 16;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aCompiledSnapshotHasTheSameWords() throws IOException {
+        Path wordsFile = wordList();
+        DawgWordStore store = DictionarySnapshot.openOrCompile(wordsFile);
+        assertEquals(4, store.size());
+        assertTrue(store.contains("cat"));
+        assertTrue(store.contains("cattle"));
+        assertFalse(store.contains("catt"));
+    }
+
+    @Test
+    void anEdgeCountThatOverflowsIsDamagedRatherThanInRange() throws IOException {
+        Path wordsFile = wordList();
+        Path snapshotFile = DictionarySnapshot.snapshotFileFor(wordsFile);
+        DictionarySnapshot.compile(wordsFile, snapshotFile);
+        // 5 bytes an edge wraps around to 4 bytes in an int, so the labels would seem to end just past the header
+        putInt(snapshotFile, EDGE_COUNT_OFFSET, 0x33333334);
+
+        assertThrows(IOException.class, () -> DictionarySnapshot.open(snapshotFile));
+    }
+
+    @Test
+    void aDamagedSnapshotOfTheRightWordListIsCompiledAgain() throws IOException {
+        Path wordsFile = wordList();
+        Path snapshotFile = DictionarySnapshot.snapshotFileFor(wordsFile);
+        DictionarySnapshot.compile(wordsFile, snapshotFile);
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3); // the header still says it's from the word list as it is now
+        }
+        assertThrows(IOException.class, () -> DictionarySnapshot.open(snapshotFile));
+
+        DawgWordStore store = DictionarySnapshot.openOrCompile(wordsFile);
+        assertTrue(store.contains("dog"));
+        assertEquals(4, DictionarySnapshot.open(snapshotFile).size());
+    }
+
+    private Path wordList() throws IOException {
+        return Files.write(directory.resolve("words.txt"), List.of("cat", "cattle", "dog", "dot"));
+    }
+
+    private static void putInt(Path file, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), offset);
+        }
+    }
+}
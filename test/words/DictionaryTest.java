@@ -0,0 +1,78 @@
+package words;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ui.DictionaryMessages;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for how a Dictionary copes with words that can't be loaded: the UI is told, and it carries on rather than
+ * every lookup failing
+ */
+class DictionaryTest {
+    private static final String BLOOM_FILTER_PROPERTY = "hangman.dictionary.bloomFilterRate";
+
+    @TempDir
+    Path directory;
+
+    private final Messages messages = new Messages();
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(BLOOM_FILTER_PROPERTY);
+    }
+
+    @Test
+    void aRuntimeFailureOnTheFirstLoadIsReportedAndEveryWordIsValid() throws IOException {
+        Path wordsFile = Files.write(directory.resolve("words.txt"), List.of("cat", "dog"));
+        System.setProperty(BLOOM_FILTER_PROPERTY, "not a number");
+
+        Dictionary dictionary = new Dictionary(messages, Dictionary.Storage.HASH_SET, wordsFile, false);
+        dictionary.whenLoaded().join();
+
+        assertEquals(1, messages.failures.size());
+        assertInstanceOf(NumberFormatException.class, messages.failures.get(0).getCause());
+        assertTrue(dictionary.isValidWord("zzz"));
+        assertEquals(0, dictionary.countMatching("---", 0));
+    }
+
+    @Test
+    void aRuntimeFailureOnAReloadIsReportedAndKeepsTheOldWords() throws IOException {
+        Path wordsFile = Files.write(directory.resolve("words.txt"), List.of("cat", "dog"));
+        Dictionary dictionary = new Dictionary(messages, Dictionary.Storage.HASH_SET, wordsFile, false);
+        dictionary.whenLoaded().join();
+        System.setProperty(BLOOM_FILTER_PROPERTY, "not a number");
+
+        assertFalse(dictionary.reload());
+
+        assertEquals(1, messages.failures.size());
+        assertTrue(dictionary.isValidWord("cat"));
+        assertFalse(dictionary.isValidWord("zzz"));
+    }
+
+    // keeps every failure it's told about
+    static final class Messages implements DictionaryMessages {
+        final List<IOException> failures = new ArrayList<>();
+
+        @Override
+        public void displayDictionaryLoadedMessage(int wordCount, Duration loadTime) {
+        }
+
+        @Override
+        public synchronized void displayDictionaryFailedToLoadMessage(IOException e) {
+            failures.add(e);
+        }
+    }
+}